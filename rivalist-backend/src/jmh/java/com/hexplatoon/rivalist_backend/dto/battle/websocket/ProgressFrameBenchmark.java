@@ -0,0 +1,144 @@
+package com.hexplatoon.rivalist_backend.dto.battle.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompDecoder;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.sockjs.frame.Jackson2SockJsMessageCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages per second for battle progress over the SockJS endpoint with JSON bodies,
+ * the native endpoint with JSON bodies, and the native endpoint with binary bodies.
+ * Outbound snapshots are timed from DTO to the bytes of the WebSocket frame, inbound
+ * deltas from those bytes back to a DTO. A connection holds each queued message as
+ * its frame, so the frame sizes printed at setup are the per-connection memory side
+ * of the comparison.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProgressFrameBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Jackson2SockJsMessageCodec sockJsCodec = new Jackson2SockJsMessageCodec(objectMapper);
+    private final StompEncoder stompEncoder = new StompEncoder();
+    private final StompDecoder stompDecoder = new StompDecoder();
+
+    private BattleProgressSnapshotDto snapshot;
+    private String sockJsDeltaFrame;
+    private byte[] jsonDeltaFrame;
+    private byte[] binaryDeltaFrame;
+
+    @Setup
+    public void setUp() throws IOException {
+        snapshot = BattleProgressSnapshotDto.builder()
+                .battleId(123_456L)
+                .username("speedy_typist")
+                .cursor(187)
+                .correctChars(181)
+                .errors(6)
+                .wpm(84.25)
+                .accuracy(96.8)
+                .build();
+        BattleProgressWebsocketDto delta = BattleProgressWebsocketDto.builder()
+                .battleId(123_456L)
+                .seq(412)
+                .offset(187)
+                .deleted(0)
+                .inserted("e")
+                .build();
+
+        jsonDeltaFrame = stompFrame(StompCommand.SEND, "/app/battle/progress",
+                objectMapper.writeValueAsBytes(delta), MimeTypeUtils.APPLICATION_JSON);
+        // Clients send SockJS messages as a JSON array of strings, without the 'a' frame prefix
+        sockJsDeltaFrame = objectMapper.writeValueAsString(new String[]{new String(jsonDeltaFrame, StandardCharsets.UTF_8)});
+        binaryDeltaFrame = stompFrame(StompCommand.SEND, "/app/battle/progress",
+                BattleProgressBinaryCodec.encodeDelta(delta), MimeTypeUtils.APPLICATION_OCTET_STREAM);
+
+        System.out.printf("%nSnapshot frame bytes: sockjs json=%d, native json=%d, native binary=%d%n",
+                sockJsJsonSnapshot().length, nativeJsonSnapshot().length, nativeBinarySnapshot().length);
+        System.out.printf("Delta frame bytes: sockjs json=%d, native json=%d, native binary=%d%n",
+                sockJsDeltaFrame.getBytes(StandardCharsets.UTF_8).length, jsonDeltaFrame.length, binaryDeltaFrame.length);
+    }
+
+    @Benchmark
+    public byte[] sockJsJsonSnapshot() throws IOException {
+        // SockJS wraps each STOMP frame in a JSON array of strings
+        String frame = sockJsCodec.encode(new String(jsonSnapshotFrame(), StandardCharsets.UTF_8));
+        return frame.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] nativeJsonSnapshot() throws IOException {
+        return jsonSnapshotFrame();
+    }
+
+    @Benchmark
+    public byte[] nativeBinarySnapshot() {
+        return stompFrame(StompCommand.MESSAGE, "/user/topic/battle/progress-bin",
+                BattleProgressBinaryCodec.encodeSnapshot(snapshot), MimeTypeUtils.APPLICATION_OCTET_STREAM);
+    }
+
+    @Benchmark
+    public BattleProgressWebsocketDto sockJsJsonDelta() throws IOException {
+        String[] messages = sockJsCodec.decode(sockJsDeltaFrame);
+        return objectMapper.readValue(stompBody(messages[0].getBytes(StandardCharsets.UTF_8)),
+                BattleProgressWebsocketDto.class);
+    }
+
+    @Benchmark
+    public BattleProgressWebsocketDto nativeJsonDelta() throws IOException {
+        return objectMapper.readValue(stompBody(jsonDeltaFrame), BattleProgressWebsocketDto.class);
+    }
+
+    @Benchmark
+    public BattleProgressWebsocketDto nativeBinaryDelta() {
+        return BattleProgressBinaryCodec.decodeDelta(stompBody(binaryDeltaFrame));
+    }
+
+    private byte[] jsonSnapshotFrame() throws IOException {
+        return stompFrame(StompCommand.MESSAGE, "/user/topic/battle/progress",
+                objectMapper.writeValueAsBytes(snapshot), MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    private byte[] stompFrame(StompCommand command, String destination, byte[] body, MimeType contentType) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setContentType(contentType);
+        if (command == StompCommand.MESSAGE) {
+            accessor.setSubscriptionId("sub-0");
+            accessor.setMessageId("a1b2c3d4-0");
+        }
+        return stompEncoder.encode(MessageBuilder.createMessage(body, accessor.getMessageHeaders()));
+    }
+
+    private byte[] stompBody(byte[] frame) {
+        List<Message<byte[]>> messages = stompDecoder.decode(ByteBuffer.wrap(frame));
+        return messages.get(0).getPayload();
+    }
+}
@@ -0,0 +1,76 @@
+package com.hexplatoon.rivalist_backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mutual friends of a user with 10,000 friends, out of 100,000 users. {@code similar}
+ * intersects with another 10,000-friend set and takes the merge path; {@code uneven}
+ * intersects with a 100-friend set and gallops. {@code hashSetRetainAll} is the same
+ * intersection over boxed {@code HashSet}s.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FriendSetsBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int FRIENDS = 10_000;
+
+    @Param({"similar", "uneven"})
+    private String shape;
+
+    private long[] a;
+    private long[] b;
+    private Set<Long> boxedA;
+    private Set<Long> boxedB;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        a = randomSet(random, FRIENDS);
+        b = randomSet(random, shape.equals("similar") ? FRIENDS : 100);
+        boxedA = boxed(a);
+        boxedB = boxed(b);
+    }
+
+    @Benchmark
+    public long[] intersect() {
+        return FriendSets.intersect(a, b);
+    }
+
+    @Benchmark
+    public Set<Long> hashSetRetainAll() {
+        Set<Long> mutual = new HashSet<>(boxedB);
+        mutual.retainAll(boxedA);
+        return mutual;
+    }
+
+    private static long[] randomSet(Random random, int size) {
+        return random.longs(0, USERS).distinct().limit(size).sorted().toArray();
+    }
+
+    private static Set<Long> boxed(long[] ids) {
+        Set<Long> set = new HashSet<>();
+        Arrays.stream(ids).forEach(set::add);
+        return set;
+    }
+}
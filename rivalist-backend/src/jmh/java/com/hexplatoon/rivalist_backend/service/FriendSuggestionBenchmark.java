@@ -0,0 +1,100 @@
+package com.hexplatoon.rivalist_backend.service;
+
+import com.hexplatoon.rivalist_backend.dto.friend.FriendEdge;
+import com.hexplatoon.rivalist_backend.dto.friend.FriendSuggestionDto;
+import com.hexplatoon.rivalist_backend.entity.Friend.FriendshipStatus;
+import com.hexplatoon.rivalist_backend.entity.User;
+import com.hexplatoon.rivalist_backend.repository.FriendRepository;
+import com.hexplatoon.rivalist_backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * One page of friend suggestions for a user with 10,000 friends, each of whom has 50
+ * friends among 100,000 users. The friend graph cache is warm, as it is for repeat
+ * requests, so this measures the mutual friend counting and ranking; the repositories
+ * are mocks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FriendSuggestionBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final int USERS = 100_000;
+    private static final int FRIENDS_OF_FRIEND = 50;
+
+    @Param({"10000"})
+    private int friends;
+
+    private FriendService friendService;
+
+    @Setup
+    public void setUp() {
+        List<FriendEdge> ownEdges = LongStream.rangeClosed(2, friends + 1)
+                .mapToObj(friendId -> new FriendEdge(USER_ID, friendId, FriendshipStatus.ACCEPTED))
+                .toList();
+        // stubOnly, so the mocks don't record every invocation
+        FriendRepository friendRepository = mock(FriendRepository.class, withSettings().stubOnly());
+        when(friendRepository.findEdgesOf(anyLong())).thenReturn(ownEdges);
+        when(friendRepository.findEdgesOfAll(any())).thenAnswer(invocation -> {
+            Collection<Long> userIds = invocation.getArgument(0);
+            List<FriendEdge> edges = new ArrayList<>();
+            for (Long userId : userIds) {
+                new Random(userId).longs(2, USERS).distinct().limit(FRIENDS_OF_FRIEND)
+                        .forEach(friendId -> edges.add(new FriendEdge(userId, friendId, FriendshipStatus.ACCEPTED)));
+                edges.add(new FriendEdge(userId, USER_ID, FriendshipStatus.ACCEPTED));
+            }
+            return edges;
+        });
+
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findByUsername("popular_user"))
+                .thenReturn(Optional.of(User.builder().id(USER_ID).username("popular_user").build()));
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<User> users = new ArrayList<>();
+            ids.forEach(id -> users.add(User.builder().id(id).username("user_" + id).build()));
+            return users;
+        });
+
+        FriendGraphCache friendGraphCache = new FriendGraphCache(friendRepository, new SimpleMeterRegistry(), 10_000_000, 3_600);
+        friendService = new FriendService(friendRepository, userRepository, mock(NotificationService.class),
+                mock(ApplicationEventPublisher.class), friendGraphCache);
+        // Load the cache outside the measurement
+        suggestFriends();
+    }
+
+    @Benchmark
+    public List<FriendSuggestionDto> suggestFriends() {
+        return friendService.suggestFriends("popular_user", 0, 20);
+    }
+}
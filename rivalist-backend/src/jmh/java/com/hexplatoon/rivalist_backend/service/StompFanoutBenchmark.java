@@ -0,0 +1,78 @@
+package com.hexplatoon.rivalist_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hexplatoon.rivalist_backend.dto.user.UserStatusDto;
+import com.hexplatoon.rivalist_backend.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * One status update sent to every friend of a user with 500 friends, through
+ * {@code convertAndSendToUser} per friend as before, and through
+ * {@link StompFanoutService} which serializes once. The broker channel accepts and
+ * drops every message, so this is the cost up to the broker. Run with {@code -prof gc}
+ * to see the allocation per update as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StompFanoutBenchmark {
+
+    private static final String DESTINATION = "/topic/user/status";
+
+    @Param({"500"})
+    private int friends;
+
+    private SimpMessagingTemplate template;
+    private StompFanoutService fanout;
+    private List<String> usernames;
+    private UserStatusDto status;
+    private long sent;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        template = new SimpMessagingTemplate((message, timeout) -> {
+            sent++;
+            return true;
+        });
+        // What Spring Boot puts behind convertAndSendToUser for JSON payloads
+        template.setMessageConverter(new MappingJackson2MessageConverter(objectMapper));
+        fanout = new StompFanoutService(template, objectMapper);
+        usernames = IntStream.range(0, friends).mapToObj(i -> "friend_" + i).toList();
+        status = UserStatusDto.builder().userId(42L).username("flapping_user").status(User.UserStatus.ONLINE).build();
+    }
+
+    @Benchmark
+    public long serializePerRecipient() {
+        for (String username : usernames) {
+            template.convertAndSendToUser(username, DESTINATION, status);
+        }
+        return sent;
+    }
+
+    @Benchmark
+    public long serializeOnce() {
+        fanout.sendToUsers(usernames, DESTINATION, status);
+        return sent;
+    }
+}
@@ -0,0 +1,121 @@
+package com.hexplatoon.rivalist_backend.service.battle.clock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HashedWheelBattleClock} against the {@code ScheduledThreadPoolExecutor} it replaced,
+ * at 10k and 100k timers. Each iteration starts from a fresh clock and times one batch:
+ * scheduling readiness-style timeouts and cancelling them all, or scheduling short ones and
+ * waiting for every task to run.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BattleClockBenchmark {
+
+    private static final long READINESS_SECONDS = 30;
+    private static final long FIRE_DELAY_MS = 20;
+
+    @Param({"10000", "100000"})
+    private int timers;
+
+    @Param({"wheel", "executor"})
+    private String clockType;
+
+    private BattleClock clock;
+    private Runnable stop;
+    private BattleClock.Timeout[] timeouts;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        if (clockType.equals("wheel")) {
+            HashedWheelBattleClock wheel = new HashedWheelBattleClock(new SimpleMeterRegistry(), 10, 512, 4);
+            wheel.start();
+            clock = wheel;
+            stop = wheel::shutdown;
+        } else {
+            // Same pool size as the old BattleTimerService, cancelled timers leave the queue
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(4);
+            executor.setRemoveOnCancelPolicy(true);
+            clock = new ExecutorClock(executor);
+            stop = executor::shutdownNow;
+        }
+        timeouts = new BattleClock.Timeout[timers];
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        stop.run();
+    }
+
+    @Benchmark
+    public int scheduleAndCancel() {
+        for (int i = 0; i < timers; i++) {
+            timeouts[i] = clock.schedule(() -> { }, READINESS_SECONDS, TimeUnit.SECONDS);
+        }
+        int cancelled = 0;
+        for (BattleClock.Timeout timeout : timeouts) {
+            if (timeout.cancel()) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    @Benchmark
+    public long scheduleAndFire() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(timers);
+        for (int i = 0; i < timers; i++) {
+            clock.schedule(fired::countDown, FIRE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+        if (!fired.await(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException(fired.getCount() + " timer(s) never fired");
+        }
+        return fired.getCount();
+    }
+
+    private record ExecutorClock(ScheduledThreadPoolExecutor executor) implements BattleClock {
+
+        @Override
+        public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+            ScheduledFuture<?> future = executor.schedule(task, delay, unit);
+            return new Timeout() {
+                @Override
+                public boolean cancel() {
+                    return future.cancel(false);
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return future.isCancelled();
+                }
+
+                @Override
+                public boolean isExpired() {
+                    return future.isDone() && !future.isCancelled();
+                }
+            };
+        }
+    }
+}
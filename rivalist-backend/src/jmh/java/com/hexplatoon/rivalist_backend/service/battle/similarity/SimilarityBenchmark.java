@@ -0,0 +1,170 @@
+package com.hexplatoon.rivalist_backend.service.battle.similarity;
+
+import com.hexplatoon.rivalist_backend.dto.battle.config.CssConfig;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores one 400x600 submission against its target with each scorer, against the
+ * original OpenCV {@code absdiff}/{@code mean} path on the same pixels. The kernels run
+ * as plain loops unless the benchmark is built with the {@code vector} profile and run
+ * with {@code -jvmArgsAppend --add-modules=jdk.incubator.vector}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimilarityBenchmark {
+
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 600;
+
+    private final CssConfig config = CssConfig.builder().color1("#1e90ff").color2("#ffd700").build();
+    private final SsimScorer ssim = new SsimScorer();
+    private final ColorDiffScorer color = new ColorDiffScorer();
+    private final PixelExactScorer exact = new PixelExactScorer();
+    private final MeanDiffScorer meanDiff = new MeanDiffScorer();
+
+    private final int[] columnSums = new int[5 * WIDTH];
+
+    private Raster submission;
+    private Raster target;
+    private Mat submissionMat;
+    private Mat targetMat;
+
+    @Setup
+    public void setUp() {
+        // CSS targets are flat shapes, the submission is the same drawing slightly off
+        byte[] targetBgr = drawShapes(0);
+        byte[] submissionBgr = drawShapes(3);
+        target = Raster.fromBgr(WIDTH, HEIGHT, targetBgr);
+        submission = Raster.fromBgr(WIDTH, HEIGHT, submissionBgr);
+        targetMat = toMat(targetBgr);
+        submissionMat = toMat(submissionBgr);
+    }
+
+    @TearDown
+    public void tearDown() {
+        targetMat.close();
+        submissionMat.close();
+    }
+
+    @Benchmark
+    public double openCvMeanDiff() {
+        try (Mat gray1 = new Mat(); Mat gray2 = new Mat(); Mat diff = new Mat()) {
+            opencv_imgproc.cvtColor(submissionMat, gray1, opencv_imgproc.COLOR_BGR2GRAY);
+            opencv_imgproc.cvtColor(targetMat, gray2, opencv_imgproc.COLOR_BGR2GRAY);
+            opencv_core.absdiff(gray1, gray2, diff);
+            try (Scalar mean = opencv_core.mean(diff)) {
+                return 100 - mean.get(0);
+            }
+        }
+    }
+
+    @Benchmark
+    public double meanDiff() {
+        return meanDiff.score(submission, target, config);
+    }
+
+    @Benchmark
+    public double ssim() {
+        return ssim.score(submission, target, config);
+    }
+
+    @Benchmark
+    public double color() {
+        return color.score(submission, target, config);
+    }
+
+    @Benchmark
+    public double exact() {
+        return exact.score(submission, target, config);
+    }
+
+    @Benchmark
+    public long sumAbsDiffScalar() {
+        return PixelKernels.SCALAR.absDiffSum(submission.getGray(), target.getGray());
+    }
+
+    @Benchmark
+    public long sumAbsDiffActive() {
+        return PixelKernels.ACTIVE.absDiffSum(submission.getGray(), target.getGray());
+    }
+
+    @Benchmark
+    public int countEqualPixelsScalar() {
+        return PixelKernels.SCALAR.equalPixelCount(submission, target);
+    }
+
+    @Benchmark
+    public int countEqualPixelsActive() {
+        return PixelKernels.ACTIVE.equalPixelCount(submission, target);
+    }
+
+    @Benchmark
+    public int[] columnSumsScalar() {
+        return allColumnSums(PixelKernels.SCALAR);
+    }
+
+    @Benchmark
+    public int[] columnSumsActive() {
+        return allColumnSums(PixelKernels.ACTIVE);
+    }
+
+    // Every 4-row strip, as one ssim score takes them
+    private int[] allColumnSums(PixelKernels kernels) {
+        for (int top = 0; top + 4 <= HEIGHT; top += 4) {
+            kernels.stripColumnSums(submission.getGray(), target.getGray(), WIDTH, top, 4, columnSums);
+        }
+        return columnSums;
+    }
+
+    private static byte[] drawShapes(int shift) {
+        Random random = new Random(42);
+        byte[] bgr = new byte[WIDTH * HEIGHT * 3];
+        fillRect(bgr, 0, 0, WIDTH, HEIGHT, 0x20, 0x20, 0x20);
+        for (int i = 0; i < 12; i++) {
+            int left = random.nextInt(WIDTH - 40);
+            int top = random.nextInt(HEIGHT - 40);
+            int right = Math.min(WIDTH, left + 20 + random.nextInt(160) + shift);
+            int bottom = Math.min(HEIGHT, top + 20 + random.nextInt(160));
+            fillRect(bgr, left + shift, top, right, bottom, random.nextInt(256), random.nextInt(256), random.nextInt(256));
+        }
+        return bgr;
+    }
+
+    private static void fillRect(byte[] bgr, int left, int top, int right, int bottom, int b, int g, int r) {
+        for (int y = top; y < bottom; y++) {
+            for (int x = left; x < right; x++) {
+                int i = (y * WIDTH + x) * 3;
+                bgr[i] = (byte) b;
+                bgr[i + 1] = (byte) g;
+                bgr[i + 2] = (byte) r;
+            }
+        }
+    }
+
+    private static Mat toMat(byte[] bgr) {
+        Mat mat = new Mat(HEIGHT, WIDTH, opencv_core.CV_8UC3);
+        mat.data().put(bgr);
+        return mat;
+    }
+}
@@ -0,0 +1,115 @@
+package com.hexplatoon.rivalist_backend.service.battle.typing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring a 150-word passage typed with one skipped word and a few typos.
+ * {@code splitWpm} is the word-split comparison the handler used before alignment,
+ * which had to re-read the whole text on every update. {@code appendKeystroke} is one
+ * character typed (and backspaced, to keep the length fixed) halfway through,
+ * {@code replaceMidText} is one correction at the middle of the text and its undo, so
+ * two replaces per op. {@code fullRescore} aligns the whole text from scratch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TypingAlignmentBenchmark {
+
+    private static final double SECONDS = 60;
+
+    private String original;
+    private String typed;
+    private TypingAlignment halfTyped;
+    private TypingAlignment fullyTyped;
+    private int middle;
+    private String middleChar;
+
+    @Setup
+    public void setUp() {
+        original = new TypingCorpus(20250401L, 1, 150).get(TypingCorpus.Difficulty.MEDIUM, 0).text();
+        typed = withMistakes(original);
+
+        halfTyped = TypingAlignment.of(original, typed.substring(0, typed.length() / 2));
+        fullyTyped = TypingAlignment.of(original, typed);
+        middle = typed.length() / 2;
+        middleChar = String.valueOf(typed.charAt(middle));
+    }
+
+    @Benchmark
+    public double splitWpm() {
+        return calculateWpm(typed, original, SECONDS);
+    }
+
+    @Benchmark
+    public int appendKeystroke() {
+        halfTyped.append('e');
+        int correct = halfTyped.correctChars();
+        halfTyped.backspace();
+        return correct;
+    }
+
+    @Benchmark
+    public int replaceMidText() {
+        fullyTyped.replace(middle, 1, "q");
+        int correct = fullyTyped.correctChars();
+        fullyTyped.replace(middle, 1, middleChar);
+        return correct;
+    }
+
+    @Benchmark
+    public double fullRescore() {
+        return TypingAlignment.of(original, typed).netWpm(SECONDS);
+    }
+
+    // The handler's calculateWPM before alignment, without its println
+    private static double calculateWpm(String typedText, String originalText, double durationInSeconds) {
+        String[] typedWords = typedText.trim().split("\\s+");
+        String[] originalWords = originalText.trim().split("\\s+");
+
+        int correctWords = 0;
+        int totalWords = Math.min(typedWords.length, originalWords.length);
+
+        for (int i = 0; i < totalWords; i++) {
+            if (typedWords[i].equals(originalWords[i])) {
+                correctWords++;
+            }
+        }
+
+        double minutes = durationInSeconds / 60.0;
+        return correctWords / minutes;
+    }
+
+    // Drops the 20th word and swaps a letter in every 25th word
+    private static String withMistakes(String original) {
+        String[] words = original.split(" ");
+        StringBuilder typed = new StringBuilder(original.length());
+        for (int i = 0; i < words.length; i++) {
+            if (i == 20) {
+                continue;
+            }
+            String word = words[i];
+            if (i % 25 == 24 && word.length() > 1) {
+                word = word.charAt(1) + "" + word.charAt(0) + word.substring(2);
+            }
+            if (!typed.isEmpty()) {
+                typed.append(' ');
+            }
+            typed.append(word);
+        }
+        return typed.toString();
+    }
+}
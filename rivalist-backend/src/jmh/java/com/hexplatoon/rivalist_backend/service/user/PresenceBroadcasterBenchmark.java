@@ -0,0 +1,143 @@
+package com.hexplatoon.rivalist_backend.service.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hexplatoon.rivalist_backend.dto.friend.FriendEdge;
+import com.hexplatoon.rivalist_backend.entity.Friend.FriendshipStatus;
+import com.hexplatoon.rivalist_backend.entity.User;
+import com.hexplatoon.rivalist_backend.repository.FriendRepository;
+import com.hexplatoon.rivalist_backend.repository.UserRepository;
+import com.hexplatoon.rivalist_backend.service.FriendGraphCache;
+import com.hexplatoon.rivalist_backend.service.StompFanoutService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * A user with 1,000 friends whose connection flaps 10 times within one second, ending
+ * online as it started. {@code immediate} sends every change as it happens, like the
+ * broadcast before debouncing; {@code debounced} is the 2 s window with the 250 ms
+ * tick from application.properties. Time is simulated, so one op is one whole storm
+ * plus the window closing. Messages and username queries per storm are printed at the end.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PresenceBroadcasterBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final int RECONNECTS = 10;
+    private static final long STORM_MS = 1_000;
+    private static final long WINDOW_MS = 2_000;
+    private static final long TICK_MS = 250;
+
+    @Param({"1000"})
+    private int friends;
+
+    @Param({"immediate", "debounced"})
+    private String mode;
+
+    private PresenceBroadcaster broadcaster;
+    private User user;
+    private long now = 0;
+    private long nextTick = TICK_MS;
+    private long messages = 0;
+    private long usernameQueries = 0;
+    private long storms = 0;
+
+    @Setup
+    public void setUp() {
+        List<FriendEdge> edges = LongStream.rangeClosed(2, friends + 1)
+                .mapToObj(friendId -> new FriendEdge(USER_ID, friendId, FriendshipStatus.ACCEPTED))
+                .toList();
+        // stubOnly, so the mocks don't record millions of invocations
+        FriendRepository friendRepository = mock(FriendRepository.class, withSettings().stubOnly());
+        when(friendRepository.findEdgesOf(anyLong())).thenReturn(edges);
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findUsernamesByIdIn(any())).thenAnswer(invocation -> {
+            usernameQueries++;
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> "friend_" + id).toList();
+        });
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> {
+            messages++;
+            return true;
+        });
+        FriendGraphCache friendGraphCache = new FriendGraphCache(friendRepository, new SimpleMeterRegistry(), 1_000_000, 3_600);
+        broadcaster = new PresenceBroadcaster(friendGraphCache, userRepository,
+                new StompFanoutService(template, objectMapper),
+                mode.equals("immediate") ? 0 : WINDOW_MS, () -> now);
+
+        user = User.builder().id(USER_ID).username("flapping_user").status(User.UserStatus.ONLINE).build();
+        broadcaster.statusChanged(user);
+        advanceTo(now + WINDOW_MS + TICK_MS);
+        // Friends have seen them online, count only what the storms send
+        messages = 0;
+        usernameQueries = 0;
+    }
+
+    @TearDown
+    public void report() {
+        System.out.printf("%nPer storm (%s): %d messages, %d username queries%n",
+                mode, messages / storms, usernameQueries / storms);
+    }
+
+    @Benchmark
+    public void reconnectStorm() {
+        long start = now;
+        long step = STORM_MS / RECONNECTS;
+        for (int i = 0; i < RECONNECTS; i++) {
+            change(start + i * step, User.UserStatus.OFFLINE);
+            change(start + i * step + step / 2, User.UserStatus.ONLINE);
+        }
+        // Let the last window close
+        advanceTo(start + STORM_MS + WINDOW_MS + TICK_MS);
+        storms++;
+    }
+
+    private void change(long at, User.UserStatus status) {
+        advanceTo(at);
+        user.setStatus(status);
+        broadcaster.statusChanged(user);
+        if (mode.equals("immediate")) {
+            broadcaster.sendDue();
+        }
+    }
+
+    // Runs every scheduler tick up to the given time
+    private void advanceTo(long time) {
+        while (nextTick <= time) {
+            now = nextTick;
+            broadcaster.sendDue();
+            nextTick += TICK_MS;
+        }
+        now = time;
+    }
+}
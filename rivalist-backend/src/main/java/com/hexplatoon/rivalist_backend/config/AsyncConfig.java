@@ -0,0 +1,34 @@
+package com.hexplatoon.rivalist_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String OUTBOUND_EXECUTOR = "outboundMessageExecutor";
+
+    /**
+     * Delivers outbound STOMP messages. A single thread keeps messages in the order
+     * they were published; if the queue fills up the publisher sends them itself.
+     */
+    @Bean(name = OUTBOUND_EXECUTOR)
+    public ThreadPoolTaskExecutor outboundMessageExecutor(
+            @Value("${rivalist.outbound.pool-size:1}") int poolSize,
+            @Value("${rivalist.outbound.queue-capacity:1024}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stomp-outbound-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,39 @@
+package com.hexplatoon.rivalist_backend.config;
+
+import com.hexplatoon.rivalist_backend.dto.battle.websocket.BattleProgressBinaryCodec;
+import com.hexplatoon.rivalist_backend.dto.battle.websocket.BattleProgressWebsocketDto;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Reads progress deltas sent as {@code application/octet-stream} frames, see
+ * {@link BattleProgressBinaryCodec}. JSON deltas are left to the Jackson converter.
+ * Read-only: outbound binary progress is encoded by the broadcaster itself.
+ */
+public class BattleProgressMessageConverter extends AbstractMessageConverter {
+
+    public BattleProgressMessageConverter() {
+        super(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        // Without a content-type header the frame is JSON
+        setStrictContentTypeMatch(true);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return BattleProgressWebsocketDto.class == clazz;
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        if (!(message.getPayload() instanceof byte[] frame)) {
+            return null;
+        }
+        try {
+            return BattleProgressBinaryCodec.decodeDelta(frame);
+        } catch (IllegalArgumentException e) {
+            throw new MessageConversionException(message, e.getMessage(), e);
+        }
+    }
+}
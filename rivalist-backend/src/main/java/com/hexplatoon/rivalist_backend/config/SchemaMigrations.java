@@ -0,0 +1,62 @@
+package com.hexplatoon.rivalist_backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schema fixes that {@code ddl-auto=update} cannot apply on its own.
+ */
+@Slf4j
+@Component
+@Order(0)
+public class SchemaMigrations implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrations(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        // Hibernate creates a CHECK constraint listing the enum values but never updates it,
+        // so a new Battle.Status (SCORING) would be rejected on existing databases
+        jdbcTemplate.execute("ALTER TABLE battles DROP CONSTRAINT IF EXISTS battles_status_check");
+        migrateFriendships();
+        log.info("Schema migrations applied");
+    }
+
+    /**
+     * Copies the old two-rows-per-friendship {@code friends} table into {@code friendships},
+     * one row per pair, then renames it out of the way so this only runs once. Where a pair
+     * has several rows a block wins over a friendship over a request, and among equals the
+     * oldest row (the original request) decides the direction.
+     */
+    private void migrateFriendships() {
+        Boolean legacyExists = jdbcTemplate.queryForObject("SELECT to_regclass('friends') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(legacyExists)) {
+            return;
+        }
+        int migrated = jdbcTemplate.update("""
+                INSERT INTO friendships (user_low_id, user_high_id, direction, status, created_at)
+                SELECT DISTINCT ON (LEAST(user_id, friend_id), GREATEST(user_id, friend_id))
+                       LEAST(user_id, friend_id),
+                       GREATEST(user_id, friend_id),
+                       CASE WHEN user_id < friend_id THEN 'LOW_TO_HIGH' ELSE 'HIGH_TO_LOW' END,
+                       status,
+                       created_at
+                FROM friends
+                WHERE user_id <> friend_id AND status <> 'UNRELATED'
+                ORDER BY LEAST(user_id, friend_id), GREATEST(user_id, friend_id),
+                         CASE status WHEN 'BLOCKED' THEN 0 WHEN 'ACCEPTED' THEN 1 ELSE 2 END,
+                         created_at
+                ON CONFLICT (user_low_id, user_high_id) DO NOTHING
+                """);
+        // Kept rather than dropped so the migration can be checked or redone by hand
+        jdbcTemplate.execute("ALTER TABLE friends RENAME TO friends_legacy");
+        log.info("Migrated {} friendship(s) from friends to friendships", migrated);
+    }
+}
@@ -60,7 +60,7 @@ public class SecurityConfig {
             // Configure authorization rules
             .authorizeHttpRequests(auth -> auth
                 // Public endpoints that don't require authentication
-                .requestMatchers("/api/auth/**", "/api/public/**", "/ws/**").permitAll()
+                .requestMatchers("/api/auth/**", "/api/public/**", "/ws/**", "/ws-native/**").permitAll()
                 // for admin routes
                 .requestMatchers("/admin/**").hasRole("ADMIN")
                 // All other endpoints require authentication
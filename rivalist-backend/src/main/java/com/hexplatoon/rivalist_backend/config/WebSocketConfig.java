@@ -5,9 +5,12 @@ import com.hexplatoon.rivalist_backend.security.CustomUserDetailsService;
 import com.hexplatoon.rivalist_backend.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.stomp.StompCommand;
@@ -21,8 +24,10 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 import java.security.SignatureException;
+import java.util.List;
 
 @Slf4j
 @Configuration
@@ -33,10 +38,98 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
 
+    // simple: in-memory broker, single node only. relay: external STOMP broker shared by all nodes
+    @Value("${rivalist.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${rivalist.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${rivalist.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${rivalist.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${rivalist.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${rivalist.broker.relay.virtual-host:/}")
+    private String relayVirtualHost;
+
+    // Run channel handlers on virtual threads instead of the bounded pools below
+    @Value("${rivalist.websocket.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${rivalist.websocket.inbound.pool-size:8}")
+    private int inboundPoolSize;
+
+    @Value("${rivalist.websocket.inbound.queue-capacity:1024}")
+    private int inboundQueueCapacity;
+
+    @Value("${rivalist.websocket.outbound.pool-size:8}")
+    private int outboundPoolSize;
+
+    @Value("${rivalist.websocket.outbound.queue-capacity:1024}")
+    private int outboundQueueCapacity;
+
+    // A session whose send has blocked this long, or whose unsent buffer has grown past
+    // the limit, is closed rather than held in memory
+    @Value("${rivalist.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${rivalist.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${rivalist.websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            log.info("Relaying STOMP messages to broker at {}:{}", relayHost, relayPort);
+            config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setVirtualHost(relayVirtualHost)
+                    // Share connected users between nodes and hand /user/ messages for a
+                    // user on another node over to that node
+                    .setUserRegistryBroadcast("/topic/rivalist.user-registry")
+                    .setUserDestinationBroadcast("/topic/rivalist.unresolved-user");
+        } else {
+            config.enableSimpleBroker("/topic");
+        }
         config.setApplicationDestinationPrefixes("/app");
+        // The outbound channel runs on a pool, keep each session's messages in the order they were sent
+        config.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configureExecutor(registration, "ws-outbound-", outboundPoolSize, outboundQueueCapacity);
+    }
+
+    private void configureExecutor(ChannelRegistration registration, String threadNamePrefix,
+                                   int poolSize, int queueCapacity) {
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor(threadNamePrefix));
+        } else {
+            registration.taskExecutor()
+                    .corePoolSize(poolSize)
+                    .maxPoolSize(poolSize)
+                    .queueCapacity(queueCapacity);
+        }
     }
 
     @Override
@@ -44,10 +137,24 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+        // Plain WebSocket without SockJS framing or fallbacks, the only endpoint that
+        // carries binary frames (e.g. /user/topic/battle/progress-bin)
+        registry.addEndpoint("/ws-native")
+                .setAllowedOriginPatterns("*");
+        // The inbound channel runs on a pool too, handle each session's messages in the order they arrived
+        registry.setPreserveReceiveOrder(true);
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new BattleProgressMessageConverter());
+        // keep the default converters after ours
+        return true;
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        configureExecutor(registration, "ws-inbound-", inboundPoolSize, inboundQueueCapacity);
         registration.interceptors(new ChannelInterceptor() {
             @Override
             public Message<?> preSend(Message<?> message, MessageChannel channel) {
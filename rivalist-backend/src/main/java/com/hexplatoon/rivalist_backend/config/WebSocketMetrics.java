@@ -0,0 +1,53 @@
+package com.hexplatoon.rivalist_backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Exports connected users/sessions and the STOMP channel queues. Queue gauges are
+ * only registered when the channels run on pools, virtual threads don't queue.
+ */
+@Component
+public class WebSocketMetrics {
+
+    public WebSocketMetrics(MeterRegistry meterRegistry,
+                            SimpUserRegistry simpUserRegistry,
+                            @Qualifier("clientInboundChannelExecutor") Executor inboundExecutor,
+                            @Qualifier("clientOutboundChannelExecutor") Executor outboundExecutor) {
+        Gauge.builder("rivalist.websocket.users", simpUserRegistry, SimpUserRegistry::getUserCount)
+                .description("Users with at least one connected session")
+                .register(meterRegistry);
+        Gauge.builder("rivalist.websocket.sessions", simpUserRegistry, WebSocketMetrics::sessionCount)
+                .description("Connected STOMP sessions")
+                .register(meterRegistry);
+        registerChannel(meterRegistry, "inbound", inboundExecutor);
+        registerChannel(meterRegistry, "outbound", outboundExecutor);
+    }
+
+    private static void registerChannel(MeterRegistry meterRegistry, String channel, Executor executor) {
+        if (!(executor instanceof ThreadPoolTaskExecutor pool)) return;
+        Gauge.builder("rivalist.websocket.channel.queue", pool, p -> p.getThreadPoolExecutor().getQueue().size())
+                .description("Messages waiting for a channel thread")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        Gauge.builder("rivalist.websocket.channel.active", pool, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Channel threads handling a message")
+                .tag("channel", channel)
+                .register(meterRegistry);
+    }
+
+    private static int sessionCount(SimpUserRegistry registry) {
+        int sessions = 0;
+        for (SimpUser user : registry.getUsers()) {
+            sessions += user.getSessions().size();
+        }
+        return sessions;
+    }
+}
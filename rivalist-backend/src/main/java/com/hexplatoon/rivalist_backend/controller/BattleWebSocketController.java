@@ -1,11 +1,9 @@
-
 package com.hexplatoon.rivalist_backend.controller;
 
 import com.hexplatoon.rivalist_backend.dto.battle.websocket.BattleEndWebsocketDto;
-import com.hexplatoon.rivalist_backend.entity.Battle;
-import com.hexplatoon.rivalist_backend.service.battle.BattleService;
-import com.hexplatoon.rivalist_backend.service.battle.CssBattleHandlerService;
-import com.hexplatoon.rivalist_backend.service.battle.TypingBattleHandlerService;
+import com.hexplatoon.rivalist_backend.dto.battle.websocket.BattleProgressWebsocketDto;
+import com.hexplatoon.rivalist_backend.service.battle.actor.BattleActorService;
+import com.hexplatoon.rivalist_backend.service.battle.actor.BattleEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -13,28 +11,31 @@ import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
 
+/**
+ * Battle messages are only queued here; each battle's mailbox processes them in order.
+ */
 @Controller
 @RequiredArgsConstructor
 public class BattleWebSocketController {
 
-    private final BattleService battleService;
-    private final TypingBattleHandlerService typingBattleHandlerService;
-    private final CssBattleHandlerService cssBattleHandlerService;
+    private final BattleActorService battleActorService;
 
     @MessageMapping({"/battle/ready"})
     public void handleReadiness(@Payload Long battleId, Principal principal) {
         String username = (String) principal.getName();
-        battleService.updateReadiness(username, battleId);
+        battleActorService.tell(battleId, new BattleEvent.Ready(username));
+    }
+
+    // Opponents get coalesced snapshots from BattleProgressBroadcaster, deltas are never echoed
+    @MessageMapping({"/battle/progress"})
+    public void handleProgress(@Payload BattleProgressWebsocketDto dto, Principal principal) {
+        String username = (String) principal.getName();
+        battleActorService.tell(dto.getBattleId(), new BattleEvent.Progress(username, dto));
     }
 
     @MessageMapping({"/battle/end"})
     public void calculateScore(@Payload BattleEndWebsocketDto dto, Principal principal) {
         String username = (String) principal.getName();
-        Battle battleType = battleService.getActiveBattleById(dto.getBattleId());
-        if(battleType.getCategory() == Battle.Category.TB){
-            typingBattleHandlerService.saveUserText(dto.getBattleId(), username, dto.getText());
-        }else if(battleType.getCategory() == Battle.Category.CSS){
-            cssBattleHandlerService.saveUserText(dto.getBattleId(), username, dto.getText());
-        }
+        battleActorService.tell(dto.getBattleId(), new BattleEvent.Submit(username, dto.getText()));
     }
 }
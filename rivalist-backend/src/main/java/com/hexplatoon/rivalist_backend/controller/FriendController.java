@@ -3,6 +3,7 @@ package com.hexplatoon.rivalist_backend.controller;
 import com.hexplatoon.rivalist_backend.dto.ApiResponse;
 import com.hexplatoon.rivalist_backend.dto.friend.FriendRequestDto;
 import com.hexplatoon.rivalist_backend.dto.friend.FriendStatusDto;
+import com.hexplatoon.rivalist_backend.dto.friend.FriendSuggestionDto;
 import com.hexplatoon.rivalist_backend.dto.user.ProfileDto;
 import com.hexplatoon.rivalist_backend.service.FriendService;
 import jakarta.validation.Valid;
@@ -161,15 +162,17 @@ public class FriendController {
     }
 
     /**
-     * Get mutual friends between the authenticated user and another user
+     * Get a page of mutual friends between the authenticated user and another user
      */
     @GetMapping("/mutual/{otherUsername}")
     public ResponseEntity<List<ProfileDto>> getMutualFriends(
             @PathVariable String otherUsername,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
             Authentication authentication) {
         try {
             String username = authentication.getName();
-            List<ProfileDto> mutualFriends = friendService.getMutualFriends(username, otherUsername);
+            List<ProfileDto> mutualFriends = friendService.getMutualFriends(username, otherUsername, page, size);
             return ResponseEntity.ok(mutualFriends);
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
@@ -177,5 +180,20 @@ public class FriendController {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to retrieve mutual friends");
         }
     }
-}
 
+    /**
+     * Suggest people the authenticated user may know, ranked by mutual friends
+     */
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<FriendSuggestionDto>> getSuggestions(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        try {
+            String username = authentication.getName();
+            return ResponseEntity.ok(friendService.suggestFriends(username, page, size));
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to retrieve friend suggestions");
+        }
+    }
+}
@@ -14,5 +14,4 @@ public class BattleSession {
     private BattleProgress challengerProgress;
     private BattleProgress opponentProgress;
 //    private Integer duration;
-    // TODO : create functions for updating progress
 }
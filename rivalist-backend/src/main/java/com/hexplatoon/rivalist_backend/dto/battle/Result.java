@@ -1,5 +1,6 @@
 package com.hexplatoon.rivalist_backend.dto.battle;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,4 +15,7 @@ public class Result {
     private String loserUsername;
     private String winnerScore;
     private String loserScore;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ScoringTimings timings;
 }
@@ -0,0 +1,22 @@
+package com.hexplatoon.rivalist_backend.dto.battle;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Wall-clock time spent in each scoring stage of a battle, in milliseconds.
+ * Per-player stages hold the slower of the two players.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScoringTimings {
+    private long targetMs;
+    private long renderMs;
+    private long decodeMs;
+    private long compareMs;
+    private long totalMs;
+}
@@ -12,4 +12,8 @@ import lombok.NoArgsConstructor;
 public class TypingConfig implements Config {
     private String text;
     private Integer duration;
+    // Identifies the passage in the typing corpus so a battle can be reproduced
+    private String difficulty;
+    private Integer passageIndex;
+    private Long corpusSeed;
 }
@@ -0,0 +1,62 @@
+package com.hexplatoon.rivalist_backend.dto.battle.websocket;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary form of battle progress for native WebSocket clients, big-endian:
+ * <pre>
+ * delta:    battleId:i64 seq:i64 offset:i32 deleted:i32 inserted:utf8...
+ * snapshot: battleId:i64 cursor:i32 correctChars:i32 errors:i32 wpm:f32 accuracy:f32 username:utf8...
+ * </pre>
+ * The trailing string runs to the end of the frame.
+ */
+public final class BattleProgressBinaryCodec {
+
+    private static final int DELTA_HEADER_BYTES = 8 + 8 + 4 + 4;
+    private static final int SNAPSHOT_HEADER_BYTES = 8 + 4 + 4 + 4 + 4 + 4;
+
+    private BattleProgressBinaryCodec() {
+    }
+
+    public static BattleProgressWebsocketDto decodeDelta(byte[] frame) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            return BattleProgressWebsocketDto.builder()
+                    .battleId(buffer.getLong())
+                    .seq(buffer.getLong())
+                    .offset(buffer.getInt())
+                    .deleted(buffer.getInt())
+                    .inserted(new String(frame, DELTA_HEADER_BYTES, frame.length - DELTA_HEADER_BYTES,
+                            StandardCharsets.UTF_8))
+                    .build();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Progress delta frame too short: " + frame.length + " bytes", e);
+        }
+    }
+
+    public static byte[] encodeDelta(BattleProgressWebsocketDto delta) {
+        byte[] inserted = delta.getInserted() == null ? new byte[0] : delta.getInserted().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(DELTA_HEADER_BYTES + inserted.length)
+                .putLong(delta.getBattleId())
+                .putLong(delta.getSeq())
+                .putInt(delta.getOffset())
+                .putInt(delta.getDeleted())
+                .put(inserted)
+                .array();
+    }
+
+    public static byte[] encodeSnapshot(BattleProgressSnapshotDto snapshot) {
+        byte[] username = snapshot.getUsername().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES + username.length)
+                .putLong(snapshot.getBattleId())
+                .putInt(snapshot.getCursor())
+                .putInt(snapshot.getCorrectChars())
+                .putInt(snapshot.getErrors())
+                .putFloat((float) snapshot.getWpm())
+                .putFloat((float) snapshot.getAccuracy())
+                .put(username)
+                .array();
+    }
+}
@@ -0,0 +1,20 @@
+package com.hexplatoon.rivalist_backend.dto.battle.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BattleProgressSnapshotDto {
+    private Long battleId;
+    private String username;
+    private int cursor;
+    private int correctChars;
+    private int errors;
+    private double wpm;
+    private double accuracy;
+}
@@ -0,0 +1,22 @@
+package com.hexplatoon.rivalist_backend.dto.battle.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One edit to a player's typed text: replace {@code deleted} chars at {@code offset}
+ * with {@code inserted}. {@code seq} increases per player so duplicates can be dropped.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BattleProgressWebsocketDto {
+    private Long battleId;
+    private long seq;
+    private int offset;
+    private int deleted;
+    private String inserted;
+}
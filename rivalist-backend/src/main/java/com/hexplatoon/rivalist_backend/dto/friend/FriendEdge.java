@@ -0,0 +1,10 @@
+package com.hexplatoon.rivalist_backend.dto.friend;
+
+import com.hexplatoon.rivalist_backend.entity.Friend.FriendshipStatus;
+
+/**
+ * One friendship row reduced to IDs, as loaded into the friend graph cache.
+ * {@code userId} sent the request or placed the block; accepted friendships go both ways.
+ */
+public record FriendEdge(Long userId, Long friendId, FriendshipStatus status) {
+}
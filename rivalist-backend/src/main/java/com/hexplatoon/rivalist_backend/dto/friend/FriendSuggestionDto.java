@@ -0,0 +1,19 @@
+package com.hexplatoon.rivalist_backend.dto.friend;
+
+import com.hexplatoon.rivalist_backend.dto.user.ProfileDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a "people you may know" suggestion
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FriendSuggestionDto {
+    private ProfileDto profile;
+    private int mutualFriends;
+}
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
         @Index(name = "idx_challenger", columnList = "challenger"),
         @Index(name = "idx_opponent", columnList = "opponent"),
         @Index(name = "idx_status", columnList = "status"),
-        @Index(name = "idx_category", columnList = "category")
+        @Index(name = "idx_category", columnList = "category"),
+        @Index(name = "idx_status_deadline", columnList = "status, deadline_at")
 })
 @Getter
 @Setter
@@ -65,12 +66,26 @@ public class Battle {
     @Column(name = "duration", nullable = false)
     private Integer duration;
 
+    /**
+     * When the current phase times out: the readiness deadline while WAITING,
+     * the end of play while ONGOING. Lets timers be re-armed after a restart.
+     */
+    @Column(name = "deadline_at")
+    private LocalDateTime deadlineAt;
+
+    /**
+     * The node holding the battle's timers and state, see {@code rivalist.node-id}.
+     * Null for battles created before nodes were tracked.
+     */
+    @Column(name = "owner_node")
+    private String ownerNode;
+
     public enum Category {
         CSS, TB, CF
     }
 
     public enum Status {
-        ONGOING, CANCELED, ENDED, WAITING
+        ONGOING, CANCELED, ENDED, WAITING, SCORING
     }
 }
 
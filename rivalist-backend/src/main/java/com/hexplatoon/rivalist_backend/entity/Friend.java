@@ -9,12 +9,19 @@ import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
+/**
+ * The relationship between two users, stored once per pair with the lower user ID
+ * first. {@link #direction} tells who sent the request or placed the block.
+ */
 @Entity
 @Table(
-    name = "friends",
+    name = "friendships",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_friendship_pair", columnNames = {"user_low_id", "user_high_id"})
+    },
     indexes = {
-        @Index(name = "idx_user_id", columnList = "user_id"),
-        @Index(name = "idx_friend_id", columnList = "friend_id")
+        // user_low_id lookups use the unique index
+        @Index(name = "idx_friendship_user_high", columnList = "user_high_id")
     }
 )
 @Data
@@ -29,12 +36,16 @@ public class Friend {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
-    private User userId;
+    @JoinColumn(name = "user_low_id", nullable = false)
+    private User userLow;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "friend_id", nullable = false)
-    private User friendId;
+    @JoinColumn(name = "user_high_id", nullable = false)
+    private User userHigh;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false, length = 12)
+    private Direction direction;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 20)
@@ -44,6 +55,37 @@ public class Friend {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * Creates the row for a relationship initiated by {@code from} towards {@code to}.
+     */
+    public static Friend between(User from, User to, FriendshipStatus status) {
+        boolean fromIsLow = from.getId() < to.getId();
+        return Friend.builder()
+                .userLow(fromIsLow ? from : to)
+                .userHigh(fromIsLow ? to : from)
+                .direction(fromIsLow ? Direction.LOW_TO_HIGH : Direction.HIGH_TO_LOW)
+                .status(status)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Whether the given user sent this request or placed this block.
+     */
+    public boolean isInitiatedBy(User user) {
+        User initiator = direction == Direction.LOW_TO_HIGH ? userLow : userHigh;
+        return initiator.getId().equals(user.getId());
+    }
+
+    public void setInitiator(User user) {
+        direction = userLow.getId().equals(user.getId()) ? Direction.LOW_TO_HIGH : Direction.HIGH_TO_LOW;
+    }
+
+    public enum Direction {
+        LOW_TO_HIGH,
+        HIGH_TO_LOW
+    }
+
     public enum FriendshipStatus {
         PENDING,
         ACCEPTED,
@@ -51,4 +93,3 @@ public class Friend {
         UNRELATED
     }
 }
-
@@ -0,0 +1,11 @@
+package com.hexplatoon.rivalist_backend.event;
+
+/**
+ * Published when two users become or stop being friends, so caches of either
+ * user's friends can be dropped once the change has committed.
+ *
+ * @param userId   one side of the friendship
+ * @param friendId the other side
+ */
+public record FriendshipChangedEvent(Long userId, Long friendId) {
+}
@@ -0,0 +1,18 @@
+package com.hexplatoon.rivalist_backend.event;
+
+import java.util.List;
+
+/**
+ * A STOMP message for one or more users. Published inside a transaction, it is only
+ * sent once that transaction commits, see {@link OutboundMessageEventListener}.
+ *
+ * @param recipients  usernames to deliver to
+ * @param destination user destination, e.g. {@code /topic/battle/start}
+ * @param payload     serialized to JSON once for all recipients
+ */
+public record OutboundMessageEvent(List<String> recipients, String destination, Object payload) {
+
+    public static OutboundMessageEvent toUsers(String destination, Object payload, String... recipients) {
+        return new OutboundMessageEvent(List.of(recipients), destination, payload);
+    }
+}
@@ -0,0 +1,33 @@
+package com.hexplatoon.rivalist_backend.event;
+
+import com.hexplatoon.rivalist_backend.config.AsyncConfig;
+import com.hexplatoon.rivalist_backend.service.StompFanoutService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sends {@link OutboundMessageEvent}s after the publishing transaction commits, so
+ * clients never see a state that is later rolled back. Events published outside a
+ * transaction are sent straight away. Delivery runs on the outbound executor and
+ * never holds up the caller's transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboundMessageEventListener {
+    private final StompFanoutService stompFanoutService;
+
+    @Async(AsyncConfig.OUTBOUND_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleOutboundMessage(OutboundMessageEvent event) {
+        try {
+            stompFanoutService.sendToUsers(event.recipients(), event.destination(), event.payload());
+        } catch (RuntimeException e) {
+            log.error("Could not send message for {}", event.destination(), e);
+        }
+    }
+}
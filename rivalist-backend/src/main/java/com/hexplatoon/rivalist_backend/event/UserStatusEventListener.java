@@ -1,6 +1,8 @@
 package com.hexplatoon.rivalist_backend.event;
 
-import com.hexplatoon.rivalist_backend.service.user.UserStatusService;
+import com.hexplatoon.rivalist_backend.entity.User;
+import com.hexplatoon.rivalist_backend.service.battle.actor.BattleActorService;
+import com.hexplatoon.rivalist_backend.service.user.PresenceRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
@@ -11,43 +13,53 @@ import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
 /**
  * Event listener for WebSocket session events to track user connection status.
- * Automatically updates user status based on their WebSocket connection state.
+ * Sessions are counted in {@link PresenceRegistry}, which updates the user's
+ * status when their first session opens or their last one closes. Closing the
+ * last session on this node also counts as leaving the user's live battles held here.
  */
 @Component
 @RequiredArgsConstructor
 public class UserStatusEventListener {
-    private final UserStatusService userStatusService;
+    private final PresenceRegistry presenceRegistry;
+    private final BattleActorService battleActorService;
 
     /**
      * Handles WebSocket connection events.
-     * Sets user status to ONLINE when they connect.
+     * Registers the session; the user goes ONLINE with their first one.
      *
      * @param event the connection event
      */
     @EventListener
     public void handleWebSocketConnectListener(SessionConnectEvent event) {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
-        Authentication auth = (Authentication) headerAccessor.getUser();
-        if (auth != null) {
-            System.out.println("User " + auth.getName() + " connected");
-            String username = auth.getName();
-            userStatusService.setUserOnline(username);
+        User user = connectedUser(headerAccessor);
+        if (user != null) {
+            presenceRegistry.connect(user.getId(), headerAccessor.getSessionId());
         }
     }
 
     /**
      * Handles WebSocket disconnection events.
-     * Sets user status to OFFLINE when they disconnect.
+     * Removes the session; when it was their last one the user goes OFFLINE and
+     * a disconnect is posted to each battle they are playing.
      *
      * @param event the disconnection event
      */
     @EventListener
     public void handleWebSocketDisconnectListener(SessionDisconnectEvent event) {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
-        Authentication auth = (Authentication) headerAccessor.getUser();
-        if (auth != null) {
-            String username = auth.getName();
-            userStatusService.setUserOffline(username);
+        User user = connectedUser(headerAccessor);
+        // A player with another tab still open has not left their battles
+        if (user != null && presenceRegistry.disconnect(user.getId(), user.getUsername(), event.getSessionId())) {
+            battleActorService.playerDisconnected(user.getUsername());
         }
     }
+
+    // The STOMP CONNECT interceptor authenticates with the User entity as principal
+    private static User connectedUser(StompHeaderAccessor headerAccessor) {
+        if (headerAccessor.getUser() instanceof Authentication auth && auth.getPrincipal() instanceof User user) {
+            return user;
+        }
+        return null;
+    }
 }
@@ -2,8 +2,48 @@ package com.hexplatoon.rivalist_backend.repository;
 
 import com.hexplatoon.rivalist_backend.entity.Battle;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface BattleRepository extends JpaRepository<Battle, Long> {
+
+    /**
+     * Cancels every battle of this node that can no longer finish: in-progress battles past
+     * their deadline (or without one) and battles that were mid-scoring. With {@code allNodes}
+     * the owner is ignored. Battles without an owner count as this node's.
+     */
+    @Modifying
+    @Query("UPDATE Battle b SET b.status = com.hexplatoon.rivalist_backend.entity.Battle.Status.CANCELED, b.updatedAt = :now " +
+            "WHERE (:allNodes = true OR b.ownerNode IS NULL OR b.ownerNode = :node) " +
+            "AND (b.status = com.hexplatoon.rivalist_backend.entity.Battle.Status.SCORING " +
+            "OR (b.status IN (com.hexplatoon.rivalist_backend.entity.Battle.Status.WAITING, com.hexplatoon.rivalist_backend.entity.Battle.Status.ONGOING) " +
+            "AND (b.deadlineAt IS NULL OR b.deadlineAt <= :now)))")
+    int cancelOverdueBattles(@Param("now") LocalDateTime now, @Param("node") String node, @Param("allNodes") boolean allNodes);
+
+    /**
+     * Cancels battles of any node that are long past their deadline, or stuck in scoring
+     * since before {@code cutoff}: their owner is gone and did not come back to recover them.
+     */
+    @Modifying
+    @Query("UPDATE Battle b SET b.status = com.hexplatoon.rivalist_backend.entity.Battle.Status.CANCELED, b.updatedAt = :now " +
+            "WHERE (b.status = com.hexplatoon.rivalist_backend.entity.Battle.Status.SCORING AND b.updatedAt <= :cutoff) " +
+            "OR (b.status IN (com.hexplatoon.rivalist_backend.entity.Battle.Status.WAITING, com.hexplatoon.rivalist_backend.entity.Battle.Status.ONGOING) " +
+            "AND b.deadlineAt <= :cutoff)")
+    int cancelOrphanedBattles(@Param("now") LocalDateTime now, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * This node's battles still waiting or in play whose deadline has not passed, with both
+     * players loaded. With {@code allNodes} the owner is ignored.
+     */
+    @Query("SELECT b FROM Battle b JOIN FETCH b.challenger JOIN FETCH b.opponent " +
+            "WHERE (:allNodes = true OR b.ownerNode IS NULL OR b.ownerNode = :node) " +
+            "AND b.status IN (com.hexplatoon.rivalist_backend.entity.Battle.Status.WAITING, com.hexplatoon.rivalist_backend.entity.Battle.Status.ONGOING) " +
+            "AND b.deadlineAt > :now")
+    List<Battle> findLiveBattles(@Param("now") LocalDateTime now, @Param("node") String node, @Param("allNodes") boolean allNodes);
 }
@@ -1,7 +1,7 @@
 package com.hexplatoon.rivalist_backend.repository;
 
+import com.hexplatoon.rivalist_backend.dto.friend.FriendEdge;
 import com.hexplatoon.rivalist_backend.entity.Friend;
-import com.hexplatoon.rivalist_backend.entity.Friend.FriendshipStatus;
 import com.hexplatoon.rivalist_backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,66 +17,49 @@ import java.util.Optional;
 public interface FriendRepository extends JpaRepository<Friend, Long> {
 
     /**
-     * Find all friendships for a given user with a specific status
+     * Find the row for a pair of users, lower ID first (a single unique index probe)
      */
-    List<Friend> findByUserIdAndStatus(User userId, FriendshipStatus status);
+    @Query("SELECT f FROM Friend f WHERE f.userLow.id = :lowId AND f.userHigh.id = :highId")
+    Optional<Friend> findPair(@Param("lowId") Long lowId, @Param("highId") Long highId);
 
     /**
-     * Find all pending friend requests sent to a user
+     * Find the relationship between two users regardless of who started it
      */
-    @Query("SELECT f FROM Friend f WHERE f.friendId = :user AND f.status = com.hexplatoon.rivalist_backend.entity.Friend.FriendshipStatus.PENDING")
-    List<Friend> findPendingRequestsForUser(@Param("user") User user);
+    default Optional<Friend> findBetween(User user1, User user2) {
+        return findPair(Math.min(user1.getId(), user2.getId()), Math.max(user1.getId(), user2.getId()));
+    }
 
     /**
-     * Find a friend request between two users regardless of who sent it
-     */
-    @Query("SELECT f FROM Friend f WHERE (f.userId = :user1 AND f.friendId = :user2) OR (f.userId = :user2 AND f.friendId = :user1)")
-    List<Friend> findFriendRequestBetweenUsers(@Param("user1") User user1, @Param("user2") User user2);
-
-    /**
-     * Check if a friendship exists between two users with ACCEPTED status
-     */
-    @Query("SELECT COUNT(f) > 0 FROM Friend f WHERE f.userId = :user1 AND f.friendId = :user2 AND f.status = com.hexplatoon.rivalist_backend.entity.Friend.FriendshipStatus.ACCEPTED")
-    boolean existsFriendshipBetweenUsers(@Param("user1") User user1, @Param("user2") User user2);
-
-    /**
-     * Find a specific friend request from one user to another
-     */
-    Optional<Friend> findByUserIdAndFriendId(User userId, User friendId);
-
-    /**
-     * Update the status of a friendship
+     * Delete the row for a pair of users, lower ID first
      */
     @Modifying
-    @Query("UPDATE Friend f SET f.status = :status WHERE f.id = :id")
-    void updateFriendshipStatus(@Param("id") Long id, @Param("status") FriendshipStatus status);
+    @Query("DELETE FROM Friend f WHERE f.userLow.id = :lowId AND f.userHigh.id = :highId")
+    int deletePair(@Param("lowId") Long lowId, @Param("highId") Long highId);
 
     /**
-     * Delete all friendships between two users (for removing a friend)
+     * Delete the relationship between two users (for removing a friend)
      */
-    @Modifying
-    @Query("DELETE FROM Friend f WHERE (f.userId = :user1 AND f.friendId = :user2) OR (f.userId = :user2 AND f.friendId = :user1)")
-    void deleteFriendshipBetweenUsers(@Param("user1") User user1, @Param("user2") User user2);
+    default int deleteBetween(User user1, User user2) {
+        return deletePair(Math.min(user1.getId(), user2.getId()), Math.max(user1.getId(), user2.getId()));
+    }
 
     /**
-     * Count number of friends a user has
+     * All relationships involving a user, as IDs only, oriented from the initiating user
      */
-    @Query("SELECT COUNT(f) FROM Friend f WHERE f.userId = :user AND f.status = com.hexplatoon.rivalist_backend.entity.Friend.FriendshipStatus.ACCEPTED")
-    long countFriendsByUser(@Param("user") User user);
+    @Query("SELECT new com.hexplatoon.rivalist_backend.dto.friend.FriendEdge(" +
+           "CASE WHEN f.direction = com.hexplatoon.rivalist_backend.entity.Friend.Direction.LOW_TO_HIGH THEN f.userLow.id ELSE f.userHigh.id END, " +
+           "CASE WHEN f.direction = com.hexplatoon.rivalist_backend.entity.Friend.Direction.LOW_TO_HIGH THEN f.userHigh.id ELSE f.userLow.id END, " +
+           "f.status) " +
+           "FROM Friend f WHERE f.userLow.id = :userId OR f.userHigh.id = :userId")
+    List<FriendEdge> findEdgesOf(@Param("userId") Long userId);
 
     /**
-     * Find all users who have sent a friend request to a specific user
+     * All relationships involving any of the given users, as IDs only, oriented from the initiating user
      */
-    @Query("SELECT f.userId FROM Friend f WHERE f.friendId = :user AND f.status = com.hexplatoon.rivalist_backend.entity.Friend.FriendshipStatus.PENDING")
-    List<User> findUsersThatSentRequestsTo(@Param("user") User user);
-
-    /**
-     * Find mutual friends between two users
-     */
-    @Query("SELECT f1.friendId FROM Friend f1, Friend f2 WHERE " +
-           "f1.userId = :user1 AND f1.status = com.hexplatoon.rivalist_backend.entity.Friend.FriendshipStatus.ACCEPTED AND " +
-           "f2.userId = :user2 AND f2.status = com.hexplatoon.rivalist_backend.entity.Friend.FriendshipStatus.ACCEPTED AND " +
-           "f1.friendId = f2.friendId")
-    List<User> findMutualFriends(@Param("user1") User user1, @Param("user2") User user2);
+    @Query("SELECT new com.hexplatoon.rivalist_backend.dto.friend.FriendEdge(" +
+           "CASE WHEN f.direction = com.hexplatoon.rivalist_backend.entity.Friend.Direction.LOW_TO_HIGH THEN f.userLow.id ELSE f.userHigh.id END, " +
+           "CASE WHEN f.direction = com.hexplatoon.rivalist_backend.entity.Friend.Direction.LOW_TO_HIGH THEN f.userHigh.id ELSE f.userLow.id END, " +
+           "f.status) " +
+           "FROM Friend f WHERE f.userLow.id IN :userIds OR f.userHigh.id IN :userIds")
+    List<FriendEdge> findEdgesOfAll(@Param("userIds") Collection<Long> userIds);
 }
-
@@ -2,10 +2,13 @@ package com.hexplatoon.rivalist_backend.repository;
 
 import com.hexplatoon.rivalist_backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -52,5 +55,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u WHERE u.username = :username OR u.email = :email")
     boolean existsByUsernameOrEmail(@Param("username") String username, @Param("email") String email);
+
+    /**
+     * Usernames of the given users, in no particular order
+     */
+    @Query("SELECT u.username FROM User u WHERE u.id IN :ids")
+    List<String> findUsernamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marks users offline who are flagged IN_BATTLE but have no ongoing battle,
+     * e.g. after their battle was canceled by a restart.
+     *
+     * @return the number of users updated
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.status = com.hexplatoon.rivalist_backend.entity.User.UserStatus.OFFLINE " +
+            "WHERE u.status = com.hexplatoon.rivalist_backend.entity.User.UserStatus.IN_BATTLE " +
+            "AND NOT EXISTS (SELECT b FROM Battle b WHERE b.status = com.hexplatoon.rivalist_backend.entity.Battle.Status.ONGOING " +
+            "AND (b.challenger = u OR b.opponent = u))")
+    int releasePlayersWithoutBattle();
 }
 
@@ -3,7 +3,6 @@ package com.hexplatoon.rivalist_backend.service;
 import com.hexplatoon.rivalist_backend.dto.challenge.ChallengeDto;
 import com.hexplatoon.rivalist_backend.entity.Challenge;
 import com.hexplatoon.rivalist_backend.entity.Challenge.ChallengeStatus;
-import com.hexplatoon.rivalist_backend.entity.Friend;
 import com.hexplatoon.rivalist_backend.entity.User;
 import com.hexplatoon.rivalist_backend.repository.ChallengeRepository;
 import com.hexplatoon.rivalist_backend.repository.FriendRepository;
@@ -35,7 +34,7 @@ public class ChallengeService {
     private final FriendRepository friendRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
-    private final FriendService friendService;
+    private final FriendGraphCache friendGraphCache;
     private final BattleService battleService;
     private final SimpMessagingTemplate simpMessagingTemplate;
 
@@ -248,8 +247,7 @@ public class ChallengeService {
      * Validate that two users are friends
      */
     private void validateFriendship(User user1, User user2) {
-        boolean areFriends =
-                friendService.getFriendStatus(user1.getUsername(), user2.getUsername()) == Friend.FriendshipStatus.ACCEPTED;
+        boolean areFriends = friendGraphCache.areFriends(user1.getId(), user2.getId());
         if (!areFriends) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only challenge friends");
         }
@@ -0,0 +1,266 @@
+package com.hexplatoon.rivalist_backend.service;
+
+import com.hexplatoon.rivalist_backend.dto.friend.FriendEdge;
+import com.hexplatoon.rivalist_backend.entity.Friend.FriendshipStatus;
+import com.hexplatoon.rivalist_backend.event.FriendshipChangedEvent;
+import com.hexplatoon.rivalist_backend.repository.FriendRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * LRU cache of each user's friendships as sorted {@code long[]} ID sets, loaded
+ * lazily with one query and dropped after any change to the user's friendships
+ * commits. Eviction is bounded by the total number of cached IDs.
+ * <p>
+ * Changes are only seen by the node that made them, so entries also expire a fixed
+ * time after loading. That bounds how long another node in relay mode keeps serving
+ * a stale friend list or misses a new block.
+ */
+@Component
+public class FriendGraphCache {
+
+    // Users per query when loading many at once, keeps the IN list reasonable
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final FriendRepository friendRepository;
+    private final long maxIds;
+    private final long ttlNanos;
+
+    // access-ordered, guarded by this
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalIds = 0;
+    // bumped on every eviction, a load that overlaps one is not cached
+    private long generation = 0;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public FriendGraphCache(FriendRepository friendRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${rivalist.friends.cache.max-ids:1000000}") long maxIds,
+                            @Value("${rivalist.friends.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.friendRepository = friendRepository;
+        this.maxIds = maxIds;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.hits = Counter.builder("rivalist.friends.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("rivalist.friends.cache.misses").register(meterRegistry);
+        this.evictions = Counter.builder("rivalist.friends.cache.evictions")
+                .description("Entries dropped to stay within the ID budget")
+                .register(meterRegistry);
+        Gauge.builder("rivalist.friends.cache.users", this, FriendGraphCache::size)
+                .description("Users whose friendships are cached")
+                .register(meterRegistry);
+        Gauge.builder("rivalist.friends.cache.ids", this, FriendGraphCache::totalIds)
+                .description("User IDs held across all cached entries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the user's friendships, loading them on a miss.
+     */
+    public Adjacency get(Long userId) {
+        long loadGeneration;
+        synchronized (this) {
+            Adjacency cached = fresh(userId, System.nanoTime());
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        misses.increment();
+        Adjacency loaded = Adjacency.of(userId, friendRepository.findEdgesOf(userId));
+        store(Map.of(userId, loaded), loadGeneration);
+        return loaded;
+    }
+
+    /**
+     * Returns the friendships of many users, loading all misses in batched queries.
+     */
+    public Map<Long, Adjacency> getAll(long[] userIds) {
+        Map<Long, Adjacency> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long loadGeneration;
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (long userId : userIds) {
+                Adjacency cached = fresh(userId, now);
+                if (cached != null) {
+                    result.put(userId, cached);
+                } else {
+                    missing.add(userId);
+                }
+            }
+            loadGeneration = generation;
+        }
+        hits.increment(result.size());
+        misses.increment(missing.size());
+
+        Map<Long, Adjacency> loaded = new HashMap<>();
+        for (int from = 0; from < missing.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> batch = missing.subList(from, Math.min(missing.size(), from + LOAD_BATCH_SIZE));
+            Map<Long, List<FriendEdge>> edgesByUser = new HashMap<>();
+            batch.forEach(userId -> edgesByUser.put(userId, new ArrayList<>()));
+            for (FriendEdge edge : friendRepository.findEdgesOfAll(batch)) {
+                // An edge between two users of the batch belongs to both
+                List<FriendEdge> outgoing = edgesByUser.get(edge.userId());
+                if (outgoing != null) outgoing.add(edge);
+                List<FriendEdge> incoming = edgesByUser.get(edge.friendId());
+                if (incoming != null && incoming != outgoing) incoming.add(edge);
+            }
+            edgesByUser.forEach((userId, edges) -> loaded.put(userId, Adjacency.of(userId, edges)));
+        }
+        store(loaded, loadGeneration);
+        result.putAll(loaded);
+        return result;
+    }
+
+    public boolean areFriends(Long userId, Long otherId) {
+        return get(userId).isFriend(otherId);
+    }
+
+    public synchronized void evict(Long userId) {
+        generation++;
+        Entry removed = entries.remove(userId);
+        if (removed != null) {
+            totalIds -= removed.adjacency().size();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendshipChanged(FriendshipChangedEvent event) {
+        evict(event.userId());
+        evict(event.friendId());
+    }
+
+    private synchronized void store(Map<Long, Adjacency> loaded, long loadGeneration) {
+        if (loaded.isEmpty() || generation != loadGeneration) {
+            // Friendships changed while loading, what we read may be stale
+            return;
+        }
+        long loadedAt = System.nanoTime();
+        loaded.forEach((userId, adjacency) -> {
+            Entry previous = entries.put(userId, new Entry(adjacency, loadedAt));
+            if (previous != null) {
+                totalIds -= previous.adjacency().size();
+            }
+            totalIds += adjacency.size();
+        });
+        evictOverflow();
+    }
+
+    // The cached entry, or null if there is none or it has expired; guarded by this
+    private Adjacency fresh(Long userId, long now) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (now - entry.loadedAt() >= ttlNanos) {
+            entries.remove(userId);
+            totalIds -= entry.adjacency().size();
+            return null;
+        }
+        return entry.adjacency();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long totalIds() {
+        return totalIds;
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        // Always keep the most recently used entry, even if it alone exceeds the budget
+        while (totalIds > maxIds && entries.size() > 1 && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            totalIds -= eldest.adjacency().size();
+            evictions.increment();
+        }
+    }
+
+    private record Entry(Adjacency adjacency, long loadedAt) {
+    }
+
+    /**
+     * A user's friendships as sorted ID arrays. Never mutated after construction.
+     *
+     * @param friends          accepted friends
+     * @param sentRequests     users this user sent a pending request to
+     * @param receivedRequests users who sent this user a pending request
+     * @param blocked          users this user blocked
+     * @param blockedBy        users who blocked this user
+     */
+    public record Adjacency(long[] friends, long[] sentRequests, long[] receivedRequests,
+                            long[] blocked, long[] blockedBy) {
+
+        static Adjacency of(Long userId, List<FriendEdge> edges) {
+            return new Adjacency(
+                    // accepted rows are shared, whoever sent the request
+                    ids(edges, e -> e.status() == FriendshipStatus.ACCEPTED,
+                            e -> e.userId().equals(userId) ? e.friendId() : e.userId()),
+                    ids(edges, e -> e.userId().equals(userId) && e.status() == FriendshipStatus.PENDING, FriendEdge::friendId),
+                    ids(edges, e -> e.friendId().equals(userId) && e.status() == FriendshipStatus.PENDING, FriendEdge::userId),
+                    ids(edges, e -> e.userId().equals(userId) && e.status() == FriendshipStatus.BLOCKED, FriendEdge::friendId),
+                    ids(edges, e -> e.friendId().equals(userId) && e.status() == FriendshipStatus.BLOCKED, FriendEdge::userId));
+        }
+
+        private static long[] ids(List<FriendEdge> edges, Predicate<FriendEdge> filter, ToLongFunction<FriendEdge> other) {
+            return edges.stream()
+                    .filter(filter)
+                    .mapToLong(other)
+                    .sorted()
+                    .distinct()
+                    .toArray();
+        }
+
+        public boolean isFriend(Long otherId) {
+            return contains(friends, otherId);
+        }
+
+        /**
+         * The relation as seen from this user; a block in either direction wins.
+         */
+        public FriendshipStatus statusWith(Long otherId) {
+            if (contains(blocked, otherId) || contains(blockedBy, otherId)) return FriendshipStatus.BLOCKED;
+            if (contains(friends, otherId)) return FriendshipStatus.ACCEPTED;
+            if (contains(sentRequests, otherId) || contains(receivedRequests, otherId)) return FriendshipStatus.PENDING;
+            return FriendshipStatus.UNRELATED;
+        }
+
+        public boolean hasSentRequestTo(Long otherId) {
+            return contains(sentRequests, otherId);
+        }
+
+        public boolean hasBlocked(Long otherId) {
+            return contains(blocked, otherId);
+        }
+
+        int size() {
+            return friends.length + sentRequests.length + receivedRequests.length + blocked.length + blockedBy.length;
+        }
+
+        private static boolean contains(long[] sorted, long id) {
+            return FriendSets.contains(sorted, id);
+        }
+    }
+}
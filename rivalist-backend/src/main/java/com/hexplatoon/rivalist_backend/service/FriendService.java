@@ -1,24 +1,29 @@
 package com.hexplatoon.rivalist_backend.service;
 
+import com.hexplatoon.rivalist_backend.dto.friend.FriendSuggestionDto;
 import com.hexplatoon.rivalist_backend.dto.user.ProfileDto;
 import com.hexplatoon.rivalist_backend.entity.Friend;
 import com.hexplatoon.rivalist_backend.entity.Friend.FriendshipStatus;
 import com.hexplatoon.rivalist_backend.entity.User;
+import com.hexplatoon.rivalist_backend.event.FriendshipChangedEvent;
 import com.hexplatoon.rivalist_backend.mapper.ProfileMapper;
 import com.hexplatoon.rivalist_backend.repository.FriendRepository;
 import com.hexplatoon.rivalist_backend.repository.UserRepository;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,9 +35,13 @@ public class
 
 FriendService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final FriendRepository friendRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FriendGraphCache friendGraphCache;
 
     /**
      * Sends a friend request from one user to another.
@@ -48,18 +57,16 @@ FriendService {
         User currentUser = findUserByUsername(currentUsername);
         User targetUser = findUserByUsername(targetUsername);
 
-        // Check if any friendship record already exists
-        // Query might return multiple records, we just need to check if any exist
-        List<Friend> existingFriendships = friendRepository.findFriendRequestBetweenUsers(currentUser, targetUser);
-        Optional<Friend> existingFriendship = existingFriendships.isEmpty() ? Optional.empty() : Optional.of(existingFriendships.get(0));
+        // Check if a friendship record already exists, there is at most one per pair
+        Optional<Friend> existingFriendship = friendRepository.findBetween(currentUser, targetUser);
 
         if (existingFriendship.isPresent()) {
             Friend friendship = existingFriendship.get();
             FriendshipStatus status = friendship.getStatus();
 
-            if (currentUser.equals(friendship.getUserId()) && status == FriendshipStatus.PENDING) {
+            if (friendship.isInitiatedBy(currentUser) && status == FriendshipStatus.PENDING) {
                 throw new ResponseStatusException(HttpStatus.CONFLICT, "Friend request already sent");
-            } else if (targetUser.equals(friendship.getUserId()) && status == FriendshipStatus.PENDING) {
+            } else if (friendship.isInitiatedBy(targetUser) && status == FriendshipStatus.PENDING) {
                 acceptFriendRequest(currentUsername, targetUsername);
                 return;
             } else if (status == FriendshipStatus.ACCEPTED) {
@@ -70,14 +77,10 @@ FriendService {
         }
 
         // Create new friend request
-        Friend friendRequest = Friend.builder()
-                .userId(currentUser)
-                .friendId(targetUser)
-                .status(FriendshipStatus.PENDING)
-                .createdAt(LocalDateTime.now())
-                .build();
+        Friend friendRequest = Friend.between(currentUser, targetUser, FriendshipStatus.PENDING);
 
         friendRepository.save(friendRequest);
+        eventPublisher.publishEvent(new FriendshipChangedEvent(currentUser.getId(), targetUser.getId()));
         // Send notification to target user
         notificationService.createNotification(
                 targetUsername,
@@ -99,28 +102,18 @@ FriendService {
         User sender = findUserByUsername(senderUsername);
 
         // Find the pending request
-        Friend pendingRequest = friendRepository.findByUserIdAndFriendId(sender, currentUser)
+        Friend pendingRequest = friendRepository.findBetween(sender, currentUser)
+                .filter(friendship -> friendship.isInitiatedBy(sender))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No pending friend request found"));
         
         if (pendingRequest.getStatus() != FriendshipStatus.PENDING) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Friend request is not in pending status");
         }
 
-        // Update the request status to ACCEPTED
+        // Update the request status to ACCEPTED, the same row stands for both directions
         pendingRequest.setStatus(FriendshipStatus.ACCEPTED);
         friendRepository.save(pendingRequest);
-
-        // Create a reciprocal friendship record for bidirectional relationship
-        // First check if it doesn't already exist
-        if (!friendRepository.findByUserIdAndFriendId(currentUser, sender).isPresent()) {
-            Friend reciprocalFriendship = Friend.builder()
-                    .userId(currentUser)
-                    .friendId(sender)
-                    .status(FriendshipStatus.ACCEPTED)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            friendRepository.save(reciprocalFriendship);
-        }
+        eventPublisher.publishEvent(new FriendshipChangedEvent(sender.getId(), currentUser.getId()));
 
         // Send notification to the sender
         notificationService.createNotification(
@@ -145,7 +138,8 @@ FriendService {
         User currentUser = findUserByUsername(currentUsername);
         User sender = findUserByUsername(senderUsername);
 
-        Friend pendingRequest = friendRepository.findByUserIdAndFriendId(sender, currentUser)
+        Friend pendingRequest = friendRepository.findBetween(sender, currentUser)
+                .filter(friendship -> friendship.isInitiatedBy(sender))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No pending friend request found"));
                 
         if (pendingRequest.getStatus() != FriendshipStatus.PENDING) {
@@ -161,6 +155,7 @@ FriendService {
         );
 
         friendRepository.delete(pendingRequest);
+        eventPublisher.publishEvent(new FriendshipChangedEvent(sender.getId(), currentUser.getId()));
         return "Friend request declined";
     }
 
@@ -175,18 +170,14 @@ FriendService {
         User currentUser = findUserByUsername(currentUsername);
         User targetUser = findUserByUsername(targetUsername);
 
-        // Remove any existing friendship records in both directions
-        friendRepository.deleteFriendshipBetweenUsers(currentUser, targetUser);
-
-        // Create a block record
-        Friend blockRecord = Friend.builder()
-                .userId(currentUser)
-                .friendId(targetUser)
-                .status(FriendshipStatus.BLOCKED)
-                .createdAt(LocalDateTime.now())
-                .build();
+        // Turn any existing relationship into a block by this user, or create one
+        Friend blockRecord = friendRepository.findBetween(currentUser, targetUser)
+                .orElseGet(() -> Friend.between(currentUser, targetUser, FriendshipStatus.BLOCKED));
+        blockRecord.setStatus(FriendshipStatus.BLOCKED);
+        blockRecord.setInitiator(currentUser);
 
         friendRepository.save(blockRecord);
+        eventPublisher.publishEvent(new FriendshipChangedEvent(currentUser.getId(), targetUser.getId()));
         return "User blocked successfully";
     }
 
@@ -202,14 +193,15 @@ FriendService {
         User friendUser = findUserByUsername(friendUsername);
 
         // Check if they are friends
-        boolean areFriends = friendRepository.existsFriendshipBetweenUsers(currentUser, friendUser);
+        boolean areFriends = friendGraphCache.areFriends(currentUser.getId(), friendUser.getId());
 
         if (!areFriends) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Friend relationship not found");
         }
 
-        // Delete friend records in both directions
-        friendRepository.deleteFriendshipBetweenUsers(currentUser, friendUser);
+        // Delete the friendship row
+        friendRepository.deleteBetween(currentUser, friendUser);
+        eventPublisher.publishEvent(new FriendshipChangedEvent(currentUser.getId(), friendUser.getId()));
 
         return "Friend removed successfully";
     }
@@ -225,26 +217,19 @@ FriendService {
         User currentUser = findUserByUsername(currentUsername);
         User otherUser = findUserByUsername(otherUsername);
 
-        List<Friend> friendships = friendRepository.findFriendRequestBetweenUsers(currentUser, otherUser);
-        Optional<Friend> friendship = friendships.isEmpty() ? Optional.empty() : Optional.of(friendships.get(0));
-
-        if (friendship.isEmpty()) {
-            return "NOT_FRIENDS";
-        }
-
-        Friend friend = friendship.get();
-        FriendshipStatus status = friend.getStatus();
+        FriendGraphCache.Adjacency adjacency = friendGraphCache.get(currentUser.getId());
+        FriendshipStatus status = adjacency.statusWith(otherUser.getId());
 
         if (status == FriendshipStatus.ACCEPTED) {
             return "FRIENDS";
         } else if (status == FriendshipStatus.PENDING) {
-            if (currentUser.equals(friend.getUserId())) {
+            if (adjacency.hasSentRequestTo(otherUser.getId())) {
                 return "REQUEST_SENT";
             } else {
                 return "REQUEST_RECEIVED";
             }
         } else if (status == FriendshipStatus.BLOCKED) {
-            if (currentUser.equals(friend.getUserId())) {
+            if (adjacency.hasBlocked(otherUser.getId())) {
                 return "BLOCKED";
             } else {
                 return "NOT_FRIENDS"; // Don't expose that the user is blocked
@@ -257,14 +242,7 @@ FriendService {
     public FriendshipStatus getFriendStatus(@NotBlank String currentUsername, @NotBlank String otherUsername) {
         User currentUser = findUserByUsername(currentUsername);
         User otherUser = findUserByUsername(otherUsername);
-        List<Friend> friendships = friendRepository.findFriendRequestBetweenUsers(currentUser, otherUser);
-        Optional<Friend> friendship = friendships.isEmpty() ? Optional.empty() : Optional.of(friendships.get(0));
-
-        if (friendship.isEmpty()) {
-            return FriendshipStatus.UNRELATED;
-        }
-
-        return friendship.get().getStatus();
+        return friendGraphCache.get(currentUser.getId()).statusWith(otherUser.getId());
     }
 
     /**
@@ -275,9 +253,8 @@ FriendService {
      */
     public List<ProfileDto> listFriends(@NotBlank String username) {
         User user = findUserByUsername(username);
-        List<User> friends = friendRepository.findByUserIdAndStatus(user, FriendshipStatus.ACCEPTED).stream()
-                .map(Friend::getFriendId)
-                .collect(Collectors.toList());
+        // One IN query for all friends instead of lazy-loading each row's user
+        List<User> friends = findUsersByIds(friendGraphCache.get(user.getId()).friends());
 
         return convertUsersToProfileDtos(friends);
     }
@@ -290,37 +267,94 @@ FriendService {
      */
     public List<ProfileDto> listPendingRequests(@NotBlank String username) {
         User user = findUserByUsername(username);
-        List<User> requestSenders = friendRepository.findPendingRequestsForUser(user).stream()
-                .map(Friend::getUserId)
-                .collect(Collectors.toList());
+        List<User> requestSenders = findUsersByIds(friendGraphCache.get(user.getId()).receivedRequests());
 
         return convertUsersToProfileDtos(requestSenders);
     }
 
     /**
-     * Gets a list of mutual friends between two users.
+     * Gets a page of mutual friends between two users, ordered by user ID.
      *
      * @param username1 The username of the first user
      * @param username2 The username of the second user
+     * @param page      The zero-based page number
+     * @param size      The page size, capped at {@value #MAX_PAGE_SIZE}
      * @return A list of ProfileDto objects representing mutual friends
      */
-    public List<ProfileDto> getMutualFriends(@NotBlank String username1, @NotBlank String username2) {
+    public List<ProfileDto> getMutualFriends(@NotBlank String username1, @NotBlank String username2, int page, int size) {
         User user1 = findUserByUsername(username1);
         User user2 = findUserByUsername(username2);
 
-        List<User> friends1 = friendRepository.findByUserIdAndStatus(user1, FriendshipStatus.ACCEPTED).stream()
-                .map(Friend::getFriendId)
-                .toList();
+        long[] mutualFriends = FriendSets.intersect(
+                friendGraphCache.get(user1.getId()).friends(),
+                friendGraphCache.get(user2.getId()).friends());
 
-        List<User> friends2 = friendRepository.findByUserIdAndStatus(user2, FriendshipStatus.ACCEPTED).stream()
-                .map(Friend::getFriendId)
-                .collect(Collectors.toList());
+        return convertUsersToProfileDtos(findUsersByIds(FriendSets.page(mutualFriends, page, Math.min(size, MAX_PAGE_SIZE))));
+    }
 
-        // Find the intersection of the two friend lists
-        List<User> mutualFriends = new ArrayList<>(friends1);
-        mutualFriends.retainAll(friends2);
+    /**
+     * Suggests friends of friends the user has no relation with yet, most mutual friends first.
+     *
+     * @param username The username of the user
+     * @param page     The zero-based page number
+     * @param size     The page size, capped at {@value #MAX_PAGE_SIZE}
+     * @return A page of suggestions with their mutual friend count
+     */
+    public List<FriendSuggestionDto> suggestFriends(@NotBlank String username, int page, int size) {
+        User user = findUserByUsername(username);
+        FriendGraphCache.Adjacency own = friendGraphCache.get(user.getId());
+        Map<Long, FriendGraphCache.Adjacency> friendsOfFriends = friendGraphCache.getAll(own.friends());
+
+        // Every friend's friend list in one array; after sorting, each candidate's
+        // mutual friend count is the length of its run
+        int total = 0;
+        for (FriendGraphCache.Adjacency adjacency : friendsOfFriends.values()) {
+            total += adjacency.friends().length;
+        }
+        long[] candidates = new long[total];
+        int filled = 0;
+        for (FriendGraphCache.Adjacency adjacency : friendsOfFriends.values()) {
+            System.arraycopy(adjacency.friends(), 0, candidates, filled, adjacency.friends().length);
+            filled += adjacency.friends().length;
+        }
+        Arrays.sort(candidates);
+
+        long[] ids = new long[candidates.length];
+        int[] counts = new int[candidates.length];
+        int distinct = 0;
+        for (int i = 0; i < candidates.length; ) {
+            long id = candidates[i];
+            int end = i;
+            while (end < candidates.length && candidates[end] == id) end++;
+            if (id != user.getId() && own.statusWith(id) == FriendshipStatus.UNRELATED) {
+                ids[distinct] = id;
+                counts[distinct] = end - i;
+                distinct++;
+            }
+            i = end;
+        }
 
-        return convertUsersToProfileDtos(mutualFriends);
+        // Sort by count descending, then ID, by packing both into one primitive key
+        long[] order = new long[distinct];
+        for (int k = 0; k < distinct; k++) {
+            order[k] = ((long) (Integer.MAX_VALUE - counts[k]) << 32) | k;
+        }
+        Arrays.sort(order);
+
+        long[] pageOrder = FriendSets.page(order, page, Math.min(size, MAX_PAGE_SIZE));
+        long[] pageIds = new long[pageOrder.length];
+        for (int k = 0; k < pageOrder.length; k++) {
+            pageIds[k] = ids[(int) pageOrder[k]];
+        }
+        List<User> users = findUsersByIds(pageIds);
+        List<FriendSuggestionDto> suggestions = new ArrayList<>(users.size());
+        for (int k = 0; k < users.size(); k++) {
+            suggestions.add(FriendSuggestionDto.builder()
+                    .profile(ProfileMapper.toProfileDto(users.get(k)))
+                    .mutualFriends(counts[(int) pageOrder[k]])
+                    .build());
+        }
+        return suggestions;
     }
 
     /**
@@ -335,6 +369,28 @@ FriendService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + username));
     }
 
+    /**
+     * Helper method to load users by ID in a single query.
+     *
+     * @param ids The user IDs
+     * @return The found users, in the order of the given IDs
+     */
+    private List<User> findUsersByIds(long[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        Map<Long, User> usersById = userRepository.findAllById(Arrays.stream(ids).boxed().toList()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<User> users = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            User found = usersById.get(id);
+            if (found != null) {
+                users.add(found);
+            }
+        }
+        return users;
+    }
+
     /**
      * Helper method to convert a list of User objects to ProfileDto objects.
      *
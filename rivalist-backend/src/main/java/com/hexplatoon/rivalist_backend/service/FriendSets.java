@@ -0,0 +1,89 @@
+package com.hexplatoon.rivalist_backend.service;
+
+import java.util.Arrays;
+
+/**
+ * Set operations over sorted, duplicate-free {@code long[]} user ID sets, as held by
+ * {@link FriendGraphCache}.
+ */
+public final class FriendSets {
+
+    // Past this size ratio, galloping through the larger set beats a linear merge
+    private static final int GALLOP_RATIO = 16;
+
+    private FriendSets() {
+    }
+
+    /**
+     * Sorted intersection of two sorted sets.
+     */
+    public static long[] intersect(long[] a, long[] b) {
+        if (a.length > b.length) {
+            long[] swap = a;
+            a = b;
+            b = swap;
+        }
+        if (a.length == 0) {
+            return new long[0];
+        }
+        return (long) a.length * GALLOP_RATIO < b.length ? gallop(a, b) : merge(a, b);
+    }
+
+    private static long[] merge(long[] small, long[] large) {
+        long[] out = new long[small.length];
+        int n = 0, i = 0, j = 0;
+        while (i < small.length && j < large.length) {
+            long x = small[i], y = large[j];
+            if (x == y) {
+                out[n++] = x;
+                i++;
+                j++;
+            } else if (x < y) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // For each element of the small set, doubles a step through the large one from the
+    // last match, then binary searches the bracketed range
+    private static long[] gallop(long[] small, long[] large) {
+        long[] out = new long[small.length];
+        int n = 0, low = 0;
+        for (long x : small) {
+            int step = 1;
+            int high = low;
+            while (high < large.length && large[high] < x) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            if (low >= large.length) break;
+            int found = Arrays.binarySearch(large, low, Math.min(high + 1, large.length), x);
+            if (found >= 0) {
+                out[n++] = x;
+                low = found + 1;
+            } else {
+                low = -found - 1;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    public static boolean contains(long[] sorted, long id) {
+        return Arrays.binarySearch(sorted, id) >= 0;
+    }
+
+    /**
+     * The {@code page}-th slice of {@code size} elements, empty past the end.
+     */
+    public static long[] page(long[] ids, int page, int size) {
+        long from = (long) page * size;
+        if (page < 0 || size <= 0 || from >= ids.length) {
+            return new long[0];
+        }
+        return Arrays.copyOfRange(ids, (int) from, (int) Math.min(ids.length, from + size));
+    }
+}
@@ -6,7 +6,6 @@ import com.hexplatoon.rivalist_backend.entity.User;
 import com.hexplatoon.rivalist_backend.repository.NotificationRepository;
 import com.hexplatoon.rivalist_backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,7 +17,7 @@ import java.util.List;
 public class NotificationService {
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final StompFanoutService stompFanoutService;
 
     public void createNotification(String recipientUsername, String senderUsername, String type, String message) {
         User user = userRepository.findByUsername(recipientUsername)
@@ -37,11 +36,7 @@ public class NotificationService {
         Notification savedNotification = notificationRepository.save(notification);
         NotificationDto dto = NotificationDto.fromEntity(savedNotification);
         // Send real-time notification via WebSocket
-        messagingTemplate.convertAndSendToUser(
-                recipientUsername,
-            "/topic/notifications",
-            dto
-        );
+        stompFanoutService.sendToUser(recipientUsername, "/topic/notifications", dto);
     }
 
     public List<Notification> getUserNotifications(String username) {
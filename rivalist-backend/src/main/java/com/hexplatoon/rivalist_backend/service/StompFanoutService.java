@@ -0,0 +1,81 @@
+package com.hexplatoon.rivalist_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sends one payload to many users. The payload goes through Jackson once and the
+ * resulting bytes are shared by every recipient's message, where
+ * {@code convertAndSendToUser} would serialize it again per user.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StompFanoutService {
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void sendToUser(String username, String destination, Object payload) {
+        sendToUsers(List.of(username), destination, payload);
+    }
+
+    /**
+     * Sends an already encoded body. Over native WebSocket sessions an
+     * {@code application/octet-stream} body goes out as a binary frame.
+     */
+    public void sendBytesToUser(String username, String destination, byte[] body, MimeType contentType) {
+        simpMessagingTemplate.send(userDestination(username, destination), message(body, contentType));
+    }
+
+    /**
+     * Sends the payload to each user's destination. A failed send is logged and
+     * does not stop delivery to the remaining users.
+     */
+    public void sendToUsers(Collection<String> usernames, String destination, Object payload) {
+        if (usernames.isEmpty()) return;
+        byte[] body = serialize(payload);
+        for (String username : usernames) {
+            try {
+                simpMessagingTemplate.send(userDestination(username, destination), message(body, MimeTypeUtils.APPLICATION_JSON));
+            } catch (MessagingException e) {
+                log.warn("Could not send {} to {}: {}", destination, username, e.getMessage());
+            }
+        }
+    }
+
+    private byte[] serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing " + payload.getClass().getSimpleName(), e);
+        }
+    }
+
+    // Same encoding as SimpMessagingTemplate.convertAndSendToUser
+    private static String userDestination(String username, String destination) {
+        return "/user/" + StringUtils.replace(username, "/", "%2F") + destination;
+    }
+
+    // Headers are per message since the template writes the destination into them
+    private static Message<byte[]> message(byte[] body, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(contentType);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+    }
+}
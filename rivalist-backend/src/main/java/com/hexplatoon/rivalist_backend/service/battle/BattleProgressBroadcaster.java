@@ -0,0 +1,69 @@
+package com.hexplatoon.rivalist_backend.service.battle;
+
+import com.hexplatoon.rivalist_backend.dto.battle.progress.BattleProgress;
+import com.hexplatoon.rivalist_backend.dto.battle.websocket.BattleProgressBinaryCodec;
+import com.hexplatoon.rivalist_backend.dto.battle.websocket.BattleProgressSnapshotDto;
+import com.hexplatoon.rivalist_backend.service.StompFanoutService;
+import com.hexplatoon.rivalist_backend.service.battle.typing.TypingProgress;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpSubscription;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Pushes each player's progress to their opponent at a fixed rate. Any number of
+ * deltas between ticks collapse into one snapshot, and idle players send nothing.
+ * Clients on the native endpoint can subscribe to the binary destination instead.
+ */
+@Service
+@RequiredArgsConstructor
+public class BattleProgressBroadcaster {
+
+    private static final String JSON_DESTINATION = "/topic/battle/progress";
+    private static final String BINARY_DESTINATION = "/topic/battle/progress-bin";
+
+    private final BattleService battleService;
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final StompFanoutService stompFanoutService;
+    private final SimpUserRegistry simpUserRegistry;
+
+    @Scheduled(fixedRateString = "${rivalist.progress.broadcast-interval-ms:100}")
+    public void broadcast() {
+        battleService.forEachActiveSession((state, session) -> {
+            if (state.phase() != BattleState.Phase.ONGOING) return;
+            send(state, state.getChallengerUsername(), session.getChallengerProgress(), state.getOpponentUsername());
+            send(state, state.getOpponentUsername(), session.getOpponentProgress(), state.getChallengerUsername());
+        });
+    }
+
+    private void send(BattleState state, String username, BattleProgress progress, String recipient) {
+        if (!(progress instanceof TypingProgress typingProgress)) return;
+        BattleProgressSnapshotDto snapshot = typingProgress.takeSnapshotIfDirty(state.getBattleId(), username);
+        if (snapshot == null) return;
+
+        if (subscribedToBinary(recipient)) {
+            stompFanoutService.sendBytesToUser(recipient, BINARY_DESTINATION,
+                    BattleProgressBinaryCodec.encodeSnapshot(snapshot), MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        } else {
+            simpMessagingTemplate.convertAndSendToUser(recipient, JSON_DESTINATION, snapshot);
+        }
+    }
+
+    private boolean subscribedToBinary(String username) {
+        SimpUser user = simpUserRegistry.getUser(username);
+        if (user == null) return false;
+        for (SimpSession session : user.getSessions()) {
+            for (SimpSubscription subscription : session.getSubscriptions()) {
+                if (("/user" + BINARY_DESTINATION).equals(subscription.getDestination())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
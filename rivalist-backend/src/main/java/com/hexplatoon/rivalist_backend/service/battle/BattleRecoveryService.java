@@ -0,0 +1,76 @@
+package com.hexplatoon.rivalist_backend.service.battle;
+
+import com.hexplatoon.rivalist_backend.entity.Battle;
+import com.hexplatoon.rivalist_backend.repository.BattleRepository;
+import com.hexplatoon.rivalist_backend.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resolves battles left behind by a restart. Timers and battle state only live in
+ * memory, so on startup overdue battles are canceled in bulk and the rest get their
+ * timers re-armed from {@link Battle#getDeadlineAt()}.
+ * <p>
+ * In relay mode several nodes share the database, so a node only recovers the battles
+ * it owns ({@link Battle#getOwnerNode()}) and leaves its peers' alone. Battles whose
+ * owner never came back are canceled once they are a grace period past their deadline.
+ */
+@Slf4j
+@Service
+public class BattleRecoveryService {
+
+    private final BattleRepository battleRepository;
+    private final UserRepository userRepository;
+    private final BattleService battleService;
+    private final String nodeId;
+    private final boolean allNodes;
+    private final long orphanGraceSeconds;
+
+    public BattleRecoveryService(BattleRepository battleRepository,
+                                 UserRepository userRepository,
+                                 BattleService battleService,
+                                 @Value("${rivalist.node-id:local}") String nodeId,
+                                 @Value("${rivalist.broker.mode:simple}") String brokerMode,
+                                 @Value("${rivalist.recovery.orphan-grace-seconds:120}") long orphanGraceSeconds) {
+        this.battleRepository = battleRepository;
+        this.userRepository = userRepository;
+        this.battleService = battleService;
+        this.nodeId = nodeId;
+        // With the in-memory broker this is the only node, so every battle is ours
+        this.allNodes = !"relay".equals(brokerMode);
+        this.orphanGraceSeconds = orphanGraceSeconds;
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        LocalDateTime now = LocalDateTime.now();
+
+        int canceled = battleRepository.cancelOverdueBattles(now, nodeId, allNodes);
+        int orphaned = allNodes ? 0 : battleRepository.cancelOrphanedBattles(now, now.minusSeconds(orphanGraceSeconds));
+        List<Battle> live = battleRepository.findLiveBattles(now, nodeId, allNodes);
+        int restored = 0;
+        for (Battle battle : live) {
+            try {
+                battleService.restoreBattle(battle, now);
+                restored++;
+            } catch (RuntimeException e) {
+                log.warn("Could not restore battle {}, canceling it: {}", battle.getId(), e.getMessage());
+                battle.setStatus(Battle.Status.CANCELED);
+                battle.setUpdatedAt(now);
+            }
+        }
+        userRepository.flush();
+        int released = userRepository.releasePlayersWithoutBattle();
+
+        log.info("Battle recovery on node {}: {} canceled, {} orphaned, {} re-armed, {} player(s) released",
+                nodeId, canceled, orphaned, restored, released);
+    }
+}
@@ -0,0 +1,128 @@
+package com.hexplatoon.rivalist_backend.service.battle;
+
+import com.hexplatoon.rivalist_backend.dto.battle.Result;
+import com.hexplatoon.rivalist_backend.entity.Battle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scores finished battles on a bounded worker pool. The timer only flips a battle
+ * into SCORING; the result is computed here without a transaction, then persisted
+ * in a short one and pushed to both players.
+ */
+@Slf4j
+@Service
+public class BattleScoringService {
+
+    private final BattleService battleService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor scoringExecutor;
+    private final Counter failedCounter;
+
+    public BattleScoringService(
+            @Lazy BattleService battleService,
+            MeterRegistry meterRegistry,
+            @Value("${rivalist.scoring.pool-size:4}") int poolSize,
+            @Value("${rivalist.scoring.queue-capacity:256}") int queueCapacity) {
+        this.battleService = battleService;
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scoringExecutor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "battle-scoring-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.failedCounter = Counter.builder("rivalist.scoring.failed")
+                .description("Battles canceled because scoring failed or could not be queued")
+                .register(meterRegistry);
+        Gauge.builder("rivalist.scoring.queue.depth", scoringExecutor, e -> e.getQueue().size())
+                .description("Battles waiting to be scored")
+                .register(meterRegistry);
+        Gauge.builder("rivalist.scoring.active", scoringExecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Battles currently being scored")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Called when a battle's time is up. Returns as soon as the battle is queued for scoring.
+     */
+    public void endBattle(Long battleId) {
+        BattleState state = battleService.getBattleState(battleId);
+        if (state == null || state.phase() != BattleState.Phase.ONGOING) {
+            log.debug("Battle {} is not ongoing, nothing to score", battleId);
+            return;
+        }
+        try {
+            battleService.markScoring(battleId);
+        } catch (RuntimeException e) {
+            // The battle timer has fired, nothing else will end this battle
+            log.error("Could not close battle {} for scoring", battleId, e);
+            abort(battleId);
+            return;
+        }
+        Battle.Category category = state.getCategory();
+        long queuedAt = System.nanoTime();
+        try {
+            scoringExecutor.execute(() -> score(battleId, category, queuedAt));
+        } catch (RejectedExecutionException e) {
+            log.error("Scoring queue is full, canceling battle {}", battleId);
+            abort(battleId);
+        }
+    }
+
+    private void score(Long battleId, Battle.Category category, long queuedAt) {
+        try {
+            Result result = battleService.scoreBattle(battleId);
+            BattleState state = battleService.completeBattle(battleId, result);
+            // completeBattle has committed, safe to tell the players
+            battleService.publishResult(state, result);
+        } catch (RuntimeException e) {
+            log.error("Scoring battle {} failed", battleId, e);
+            abort(battleId);
+        } finally {
+            Timer.builder("rivalist.scoring.latency")
+                    .description("Time from the battle ending to its result being published")
+                    .tag("category", category.name())
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void abort(Long battleId) {
+        failedCounter.increment();
+        try {
+            BattleState state = battleService.abortScoring(battleId);
+            if (state != null) {
+                // Let the clients leave the battle screen, there is no result to show
+                battleService.publishResult(state, null);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not cancel battle {} after a scoring failure", battleId, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scoringExecutor.shutdown();
+    }
+}
@@ -6,29 +6,41 @@ import com.hexplatoon.rivalist_backend.dto.battle.Result;
 import com.hexplatoon.rivalist_backend.dto.battle.websocket.BattleCreateWebsocketDto;
 import com.hexplatoon.rivalist_backend.dto.battle.websocket.BattleResultWebsocketDto;
 import com.hexplatoon.rivalist_backend.dto.battle.websocket.BattleStartWebsocketDto;
-import com.hexplatoon.rivalist_backend.dto.battle.Readiness;
 import com.hexplatoon.rivalist_backend.dto.battle.config.Config;
+import com.hexplatoon.rivalist_backend.dto.battle.config.CssConfig;
+import com.hexplatoon.rivalist_backend.dto.battle.config.TypingConfig;
+import com.hexplatoon.rivalist_backend.dto.battle.progress.BattleProgress;
+import com.hexplatoon.rivalist_backend.dto.battle.websocket.BattleProgressWebsocketDto;
 import com.hexplatoon.rivalist_backend.entity.Challenge;
 import com.hexplatoon.rivalist_backend.entity.User;
 import com.hexplatoon.rivalist_backend.entity.Battle;
 import com.hexplatoon.rivalist_backend.dto.battle.BattleSession;
+import com.hexplatoon.rivalist_backend.event.OutboundMessageEvent;
 import com.hexplatoon.rivalist_backend.mapper.ProfileMapper;
 import com.hexplatoon.rivalist_backend.repository.BattleRepository;
 import com.hexplatoon.rivalist_backend.repository.UserRepository;
+import com.hexplatoon.rivalist_backend.service.battle.typing.TypingProgress;
 import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 // TODO : Refine Code
 
@@ -36,33 +48,42 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class BattleService{
 
+    private static final int READINESS_TIMEOUT_SECONDS = 30;
+    // Grace period after the clock runs out for final submissions to arrive
+    private static final int SUBMISSION_GRACE_SECONDS = 5;
+
     private final Map<Long, BattleSession> activeSessions = new ConcurrentHashMap<>();
-    private final Map<Long, Readiness> readinessMap = new ConcurrentHashMap<>();
-    private final Map<Long, Battle> activeBattles = new ConcurrentHashMap<>();
+    private final Map<Long, BattleState> battleStates = new ConcurrentHashMap<>();
     private final UserRepository userRepository;
-    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
     private final BattleRepository battleRepository;
     private final BattleTimerService battleTimerService;
     private final TypingBattleHandlerService typingBattleHandlerService;
     private final CssBattleHandlerService cssBattleHandlerService;
     private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
 
 
 
     @Autowired
     public BattleService(
             UserRepository userRepository,
-            SimpMessagingTemplate simpMessagingTemplate,
+            ApplicationEventPublisher eventPublisher,
             BattleRepository battleRepository,
             BattleTimerService battleTimerService,
-            TypingBattleHandlerService typingBattleHandlerService, CssBattleHandlerService cssBattleHandlerService, ObjectMapper objectMapper) {
+            TypingBattleHandlerService typingBattleHandlerService, CssBattleHandlerService cssBattleHandlerService, ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            @Value("${rivalist.node-id:local}") String nodeId) {
         this.userRepository = userRepository;
-        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.eventPublisher = eventPublisher;
         this.battleRepository = battleRepository;
         this.battleTimerService = battleTimerService;
         this.typingBattleHandlerService = typingBattleHandlerService;
         this.cssBattleHandlerService = cssBattleHandlerService;
         this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = nodeId;
     }
 
     @Transactional
@@ -84,10 +105,25 @@ public class BattleService{
                 .opponent(opponent)
                 .status(Battle.Status.WAITING)
                 .duration(duration)
+                .deadlineAt(LocalDateTime.now().plusSeconds(READINESS_TIMEOUT_SECONDS))
+                .ownerNode(nodeId)
                 .build();
 
         battleRepository.save(battle);
 
+        // tracks readiness until both users are ready or the timer expires. Goes live only once
+        // the row has committed, and before the create message below goes out
+        Long battleId = battle.getId();
+        BattleState state = new BattleState(battleId, battle.getCategory(),
+                challengerUsername, opponentUsername, duration, BattleState.Phase.CREATED);
+        afterCommit(() -> {
+            battleStates.put(battleId, state);
+            state.transition(BattleState.Phase.CREATED, BattleState.Phase.WAITING);
+
+            // start a timer for checking both user being ready
+            battleTimerService.startReadinessTimer(battleId, READINESS_TIMEOUT_SECONDS);
+        });
+
         // response to send to each of the user
         BattleCreateWebsocketDto responseDto = BattleCreateWebsocketDto.builder()
                 .battleId(battle.getId())
@@ -97,27 +133,21 @@ public class BattleService{
                 .message("CREATED")
                 .build();
 
-        // response sent to each user using websocket
-        simpMessagingTemplate.convertAndSendToUser(challengerUsername,"/topic/battle/create", responseDto);
-        simpMessagingTemplate.convertAndSendToUser(opponentUsername,"/topic/battle/create", responseDto);
-
-        // to check for both user being ready
-        // remove this object from map if timer expire or both user get ready
-        Readiness ready = new Readiness();
-        readinessMap.put(battle.getId(), ready);
-
-        // start a timer for checking both user being ready
-        battleTimerService.startReadinessTimer(battle.getId(), 30);
+        // response sent to each user using websocket once the battle is committed
+        eventPublisher.publishEvent(OutboundMessageEvent.toUsers(
+                "/topic/battle/create", responseDto, challengerUsername, opponentUsername));
     }
 
+    /**
+     * Persists the start of a battle whose {@link BattleState} has already moved to ONGOING.
+     * The session and the battle timer only go live once this has committed.
+     */
     @Transactional
     public void startBattle(Long battleId){
         Battle battle = findBattleById(battleId);
         validateBattle(battle, Battle.Status.WAITING);
 
-        activeBattles.put(battle.getId(), battle);
         BattleSession session = BattleSession.builder().build();
-        activeSessions.put(battle.getId(), session);
 
         // update user status in db
         User challenger = battle.getChallenger();
@@ -134,6 +164,7 @@ public class BattleService{
         }else if(battle.getCategory() == Battle.Category.CSS){
             config = cssBattleHandlerService.getConfig(battleId);
         }
+        initProgress(session, config);
         try {
             battle.setConfigJson(objectMapper.writeValueAsString(config));
         } catch (JsonProcessingException e) {
@@ -149,41 +180,55 @@ public class BattleService{
                 .category(battle.getCategory())
                 .build();
 
-        // send data to users with websocket
-        simpMessagingTemplate.convertAndSendToUser(challenger.getUsername(),"/topic/battle/start", dto);
-        simpMessagingTemplate.convertAndSendToUser(opponent.getUsername(),"/topic/battle/start", dto);
+        // send data to users with websocket once the start is committed
+        eventPublisher.publishEvent(OutboundMessageEvent.toUsers(
+                "/topic/battle/start", dto, challenger.getUsername(), opponent.getUsername()));
 
         battle.setStatus(Battle.Status.ONGOING);
         battle.setStartedAt(LocalDateTime.now());
+        battle.setDeadlineAt(battle.getStartedAt().plusSeconds(battle.getDuration() + SUBMISSION_GRACE_SECONDS));
         battleRepository.save(battle);
 
-        // Start timer
-        battleTimerService.startBattleTimer(battleId, battle.getDuration() + 5);
-
-//        activeSessions.put(battleId, session);
+        int timerSeconds = battle.getDuration() + SUBMISSION_GRACE_SECONDS;
+        afterCommit(() -> {
+            activeSessions.put(battleId, session);
+            battleTimerService.startBattleTimer(battleId, timerSeconds);
+        });
     }
 
+    /**
+     * Closes the battle for submissions. Scoring happens afterwards on
+     * {@link BattleScoringService}, outside of any transaction. The state goes back
+     * to ONGOING if this does not commit.
+     */
     @Transactional
-    public void endBattle(Long battleId) {
-        Battle battle = getActiveBattleById(battleId);
-        validateBattle(battle, Battle.Status.ONGOING);
+    public void markScoring(Long battleId) {
+        BattleState state = getBattleState(battleId);
+        transition(state, BattleState.Phase.ONGOING, BattleState.Phase.SCORING);
+        afterRollback(() -> state.transition(BattleState.Phase.SCORING, BattleState.Phase.ONGOING));
 
         // update ending time in the battle
+        Battle battle = findBattleById(battleId);
         battle.setUpdatedAt(LocalDateTime.now());
+        battle.setStatus(Battle.Status.SCORING);
+        battleRepository.save(battle);
+    }
 
-        // update user status
-        User challenger = battle.getChallenger();
-        User opponent = battle.getOpponent();
-        challenger.setStatus(User.UserStatus.ONLINE);
-        userRepository.save(challenger);
-        opponent.setStatus(User.UserStatus.ONLINE);
-        userRepository.save(opponent);
+    /**
+     * Computes the result of a battle in SCORING state. Deliberately not transactional:
+     * CSS scoring renders and compares images and must not hold a DB connection.
+     */
+    public Result scoreBattle(Long battleId) {
+        BattleState state = getBattleState(battleId);
+        if (state == null || state.phase() != BattleState.Phase.SCORING) {
+            throw new RuntimeException("Battle " + battleId + " is not being scored");
+        }
 
         // result config fetch logic
         Result result = null;
-        if (battle.getCategory() == Battle.Category.TB){
+        if (state.getCategory() == Battle.Category.TB){
             result = typingBattleHandlerService.getResult(battleId);
-        }else if(battle.getCategory() == Battle.Category.CSS){
+        }else if(state.getCategory() == Battle.Category.CSS){
             try {
                 result = cssBattleHandlerService.getResult(battleId);
             } catch (IOException e) {
@@ -193,6 +238,24 @@ public class BattleService{
         if (result == null) {
             throw new RuntimeException("Error fetching result");
         }
+        return result;
+    }
+
+    /**
+     * Persists a computed result. The in-memory state only moves to ENDED and is released
+     * once this has committed, so a failed save leaves it for {@link #abortScoring}.
+     * Returns the finished battle's state so the caller can publish once this has committed.
+     */
+    @Transactional
+    public BattleState completeBattle(Long battleId, Result result) {
+        BattleState state = getBattleState(battleId);
+        if (state == null || state.phase() != BattleState.Phase.SCORING) {
+            throw new RuntimeException("Battle " + battleId + " is not being scored");
+        }
+
+        Battle battle = findBattleById(battleId);
+        // update user status
+        resetPlayerStatus(battle);
 
         // save result in db
         try {
@@ -201,84 +264,249 @@ public class BattleService{
             throw new RuntimeException("Error serializing result", e);
         }
 
-        // BattleResultWebsocketDto
-        BattleResultWebsocketDto dto = BattleResultWebsocketDto.builder()
-                .result(result)
-                .battleId(battle.getId())
-                .category(battle.getCategory())
-                .build();
-        // send to both the users
-        simpMessagingTemplate.convertAndSendToUser(opponent.getUsername(),"/topic/battle/end", dto);
-        simpMessagingTemplate.convertAndSendToUser(challenger.getUsername(),"/topic/battle/end", dto);
-
         // remove active battle and session
         // update battle status and winnerUsername
         battle.setStatus(Battle.Status.ENDED);
         battle.setWinnerUsername(result.getWinnerUsername());
-        BattleSession session = activeSessions.remove(battleId);
-        Battle removedBattle = activeBattles.remove(battleId);
-
-        if (removedBattle != null && session != null) {
-            battleRepository.save(removedBattle);
-        }else{
-            throw new RuntimeException("Error delete active session or battle");
-        }
+        battleRepository.save(battle);
+        afterCommit(() -> {
+            state.transition(BattleState.Phase.SCORING, BattleState.Phase.ENDED);
+            activeSessions.remove(battleId);
+            battleStates.remove(battleId);
+        });
+        return state;
     }
 
+    /**
+     * Cancels a battle whose scoring failed or could not be queued, so neither
+     * player is left stuck in IN_BATTLE. Goes by the row, not the in-memory phase:
+     * anything short of a saved result is canceled. Returns null if the result was saved.
+     */
     @Transactional
-    public void cancelBattle(Long battleId) {
+    public BattleState abortScoring(Long battleId) {
         Battle battle = findBattleById(battleId);
-
+        if (battle.getStatus() == Battle.Status.ENDED) {
+            return null;
+        }
+        resetPlayerStatus(battle);
         battle.setStatus(Battle.Status.CANCELED);
         battleRepository.save(battle);
 
-        readinessMap.remove(battleId);
+        BattleState state = battleStates.get(battleId);
+        afterCommit(() -> {
+            if (state != null) {
+                state.cancel();
+            }
+            battleStates.remove(battleId);
+            activeSessions.remove(battleId);
+        });
+        return state != null ? state : BattleState.of(battle, BattleState.Phase.CANCELED);
+    }
+
+    /**
+     * Cleans up after a start that did not commit: drops everything held in memory for the
+     * battle and cancels its row, which would otherwise sit in WAITING with no readiness timer.
+     */
+    private void discardFailedStart(BattleState state) {
+        Long battleId = state.getBattleId();
+        state.cancel();
+        battleStates.remove(battleId);
+        activeSessions.remove(battleId);
+        battleTimerService.cancelBattleTimer(battleId);
+        typingBattleHandlerService.discard(battleId);
+        cssBattleHandlerService.discard(battleId);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Battle battle = findBattleById(battleId);
+                if (battle.getStatus() == Battle.Status.WAITING) {
+                    battle.setStatus(Battle.Status.CANCELED);
+                    battleRepository.save(battle);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not cancel battle {} after its start failed", battleId, e);
+        }
+    }
+
+    public void publishResult(BattleState state, Result result) {
+        // BattleResultWebsocketDto
+        BattleResultWebsocketDto dto = BattleResultWebsocketDto.builder()
+                .result(result)
+                .battleId(state.getBattleId())
+                .category(state.getCategory())
+                .build();
+        // send to both the users
+        eventPublisher.publishEvent(OutboundMessageEvent.toUsers(
+                "/topic/battle/end", dto, state.getOpponentUsername(), state.getChallengerUsername()));
+    }
+
+    private void initProgress(BattleSession session, Config config) {
+        if (config instanceof TypingConfig typingConfig) {
+            session.setChallengerProgress(new TypingProgress(typingConfig.getText()));
+            session.setOpponentProgress(new TypingProgress(typingConfig.getText()));
+        }
+    }
 
-        System.out.println("Battle " + battleId + " cancelled.");
+    private void resetPlayerStatus(Battle battle) {
+        User challenger = battle.getChallenger();
+        User opponent = battle.getOpponent();
+        challenger.setStatus(User.UserStatus.ONLINE);
+        userRepository.save(challenger);
+        opponent.setStatus(User.UserStatus.ONLINE);
+        userRepository.save(opponent);
     }
 
+    /**
+     * Re-arms a WAITING or ONGOING battle loaded after a restart: rebuilds its in-memory
+     * state from the row and schedules the timer for whatever is left of its deadline.
+     */
+    public void restoreBattle(Battle battle, LocalDateTime now) {
+        Long battleId = battle.getId();
+        int remainingSeconds = (int) Math.max(1, Duration.between(now, battle.getDeadlineAt()).toSeconds());
+
+        if (battle.getStatus() == Battle.Status.WAITING) {
+            battleStates.put(battleId, BattleState.of(battle, BattleState.Phase.WAITING));
+            battleTimerService.startReadinessTimer(battleId, remainingSeconds);
+            return;
+        }
+
+        Config config = null;
+        try {
+            if (battle.getCategory() == Battle.Category.TB) {
+                config = objectMapper.readValue(battle.getConfigJson(), TypingConfig.class);
+                typingBattleHandlerService.restoreConfig(battleId, config);
+            } else if (battle.getCategory() == Battle.Category.CSS) {
+                config = objectMapper.readValue(battle.getConfigJson(), CssConfig.class);
+                cssBattleHandlerService.restoreConfig(battleId, config);
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error deserializing config of battle " + battleId, e);
+        }
+        BattleSession session = BattleSession.builder().build();
+        initProgress(session, config);
+        battleStates.put(battleId, BattleState.of(battle, BattleState.Phase.ONGOING));
+        activeSessions.put(battleId, session);
+        battleTimerService.startBattleTimer(battleId, remainingSeconds);
+    }
 
-    // TODO : create get challenger username and get opponent username
+    /**
+     * Cancels a battle that was never started. Does nothing if both players became
+     * ready in the meantime.
+     */
     @Transactional
-    public void updateReadiness(@NotNull String username , Long battleId) {
+    public void cancelBattle(Long battleId) {
+        BattleState state = battleStates.get(battleId);
+        if (state != null && !state.transition(BattleState.Phase.WAITING, BattleState.Phase.CANCELED)) {
+            return;
+        }
+        battleStates.remove(battleId);
 
-        Readiness ready = readinessMap.get(battleId);
         Battle battle = findBattleById(battleId);
+        battle.setStatus(Battle.Status.CANCELED);
+        battleRepository.save(battle);
 
+        log.info("Battle {} cancelled.", battleId);
+    }
 
-        String challengerUsername = battle.getChallenger().getUsername();
-        String opponentUsername =  battle.getOpponent().getUsername();
 
-        validateBattle(battle, Battle.Status.WAITING);
+    /**
+     * Handles a ready message. Works purely on the in-memory {@link BattleState};
+     * the DB is only touched by the one call that completes readiness.
+     */
+    public void updateReadiness(@NotNull String username , Long battleId) {
+        BattleState state = battleStates.get(battleId);
+        if (state == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Battle not found : " + battleId);
+        }
 
-        if(username.equals(challengerUsername) && !readinessMap.get(battleId).isChallengerOk()) {
-            ready.setChallengerOk(true);
+        switch (state.markReady(username)) {
+            case BOTH_READY -> {
+                battleTimerService.cancelReadinessTimer(battleId);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> startBattle(battleId));
+                } catch (RuntimeException e) {
+                    discardFailedStart(state);
+                    throw e;
+                }
+            }
+            case DUPLICATE -> log.debug("{} is already ready for battle {}", username, battleId);
+            case REJECTED -> throw new UsernameNotFoundException(
+                    "Username " + username + " not found Or Battle already started.");
+            case ACCEPTED -> { }
         }
-        else if(username.equals(opponentUsername) && !readinessMap.get(battleId).isOpponentOk()) {
-            ready.setOpponentOk(true);
+    }
+
+    /**
+     * Applies a keystroke delta to the sender's progress. Broadcasting is left to
+     * {@link BattleProgressBroadcaster}.
+     */
+    public void updateProgress(Long battleId, String username, BattleProgressWebsocketDto delta) {
+        BattleState state = battleStates.get(battleId);
+        BattleSession session = activeSessions.get(battleId);
+        if (state == null || session == null || state.phase() != BattleState.Phase.ONGOING) {
+            return;
+        }
+        BattleProgress progress = null;
+        if (username.equals(state.getChallengerUsername())) {
+            progress = session.getChallengerProgress();
+        } else if (username.equals(state.getOpponentUsername())) {
+            progress = session.getOpponentProgress();
         }
-        else {
-            throw new UsernameNotFoundException("Username " + username + " not found Or Battle already started.");
+        if (progress instanceof TypingProgress typingProgress) {
+            typingProgress.apply(delta.getSeq(), delta.getOffset(), delta.getDeleted(), delta.getInserted());
         }
+    }
 
-        if (isBothReady(battleId)) {
-            readinessMap.remove(battleId);
-            battleTimerService.cancelReadinessTimer(battleId);
-            startBattle(battleId);
+    /**
+     * The text a player has typed so far according to their streamed progress, or null.
+     */
+    public String findTypedText(Long battleId, String username) {
+        BattleState state = battleStates.get(battleId);
+        BattleSession session = activeSessions.get(battleId);
+        if (state == null || session == null) return null;
+        BattleProgress progress = username.equals(state.getChallengerUsername())
+                ? session.getChallengerProgress() : session.getOpponentProgress();
+        return progress instanceof TypingProgress typingProgress ? typingProgress.typedText() : null;
+    }
+
+    public void forEachActiveSession(BiConsumer<BattleState, BattleSession> action) {
+        activeSessions.forEach((battleId, session) -> {
+            BattleState state = battleStates.get(battleId);
+            if (state != null) {
+                action.accept(state, session);
+            }
+        });
+    }
+
+    /**
+     * A player who drops out of the waiting room has to press ready again.
+     * Ongoing battles are left alone so the player can reconnect.
+     */
+    public void handleDisconnect(Long battleId, String username) {
+        BattleState state = battleStates.get(battleId);
+        if (state != null && state.clearReady(username)) {
+            log.debug("{} disconnected while waiting for battle {}", username, battleId);
         }
     }
 
+    public List<Long> findLiveBattleIds(String username) {
+        return battleStates.values().stream()
+                .filter(state -> state.isPlayer(username))
+                .map(BattleState::getBattleId)
+                .toList();
+    }
+
     public boolean isBothReady(Long battleId) {
-        Readiness ready = readinessMap.get(battleId);
-        return ready!=null && ready.isChallengerOk()&& ready.isOpponentOk();
+        BattleState state = battleStates.get(battleId);
+        return state != null && state.isBothReady();
     }
 
     public Battle findBattleById(Long battleId) {
         return battleRepository.findById(battleId).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Battle not found : " + battleId));
     }
-    public Battle getActiveBattleById(Long battleId) {
-        return activeBattles.get(battleId);
+    public BattleState getBattleState(Long battleId) {
+        return battleStates.get(battleId);
     }
 
     private User findUserByUsername(String username) {
@@ -286,6 +514,44 @@ public class BattleService{
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + username));
     }
 
+    // Runs once the surrounding transaction has committed, or straight away outside of one
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Runs if the surrounding transaction does not commit
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private void transition(BattleState state, BattleState.Phase from, BattleState.Phase to) {
+        if (state == null) {
+            throw new RuntimeException("No battle state, expected " + from.name());
+        }
+        if (!state.transition(from, to)) {
+            throw new RuntimeException("Expected " + from.name() + " but got " + state.phase().name());
+        }
+    }
+
     private void validateBattle(Battle battle, Battle.Status expectedStatus) {
         if (battle.getStatus() != expectedStatus) {
             throw new RuntimeException("Expected " + expectedStatus.name() +
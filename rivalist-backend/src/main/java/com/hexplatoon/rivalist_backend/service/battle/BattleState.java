@@ -0,0 +1,160 @@
+package com.hexplatoon.rivalist_backend.service.battle;
+
+import com.hexplatoon.rivalist_backend.entity.Battle;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory state of a live battle. Phase and readiness are packed into one int
+ * and only change through compare-and-set, so concurrent ready/end/timeout events
+ * can never apply the same transition twice or skip one.
+ */
+@Getter
+public final class BattleState {
+
+    public enum Phase {
+        CREATED, WAITING, ONGOING, SCORING, ENDED, CANCELED
+    }
+
+    public enum ReadyOutcome {
+        /** First player ready, still waiting on the other */
+        ACCEPTED,
+        /** This call made both players ready and moved the battle to ONGOING */
+        BOTH_READY,
+        /** The player was already ready */
+        DUPLICATE,
+        /** Not a player of this battle, or the battle is no longer waiting */
+        REJECTED
+    }
+
+    private static final int PHASE_MASK = 0xFF;
+    private static final int CHALLENGER_READY = 1 << 8;
+    private static final int OPPONENT_READY = 1 << 9;
+    private static final int BOTH_READY_BITS = CHALLENGER_READY | OPPONENT_READY;
+    private static final Phase[] PHASES = Phase.values();
+
+    private final Long battleId;
+    private final Battle.Category category;
+    private final String challengerUsername;
+    private final String opponentUsername;
+    private final Integer duration;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger state;
+
+    public BattleState(Long battleId, Battle.Category category, String challengerUsername,
+                       String opponentUsername, Integer duration, Phase phase) {
+        this.battleId = battleId;
+        this.category = category;
+        this.challengerUsername = challengerUsername;
+        this.opponentUsername = opponentUsername;
+        this.duration = duration;
+        this.state = new AtomicInteger(phase.ordinal());
+    }
+
+    public static BattleState of(Battle battle, Phase phase) {
+        return new BattleState(battle.getId(), battle.getCategory(), battle.getChallenger().getUsername(),
+                battle.getOpponent().getUsername(), battle.getDuration(), phase);
+    }
+
+    public Phase phase() {
+        return PHASES[state.get() & PHASE_MASK];
+    }
+
+    public boolean isPlayer(String username) {
+        return challengerUsername.equals(username) || opponentUsername.equals(username);
+    }
+
+    public boolean isBothReady() {
+        return (state.get() & BOTH_READY_BITS) == BOTH_READY_BITS;
+    }
+
+    /**
+     * Moves from {@code from} to {@code to}, keeping the readiness bits.
+     *
+     * @return false if the battle was not in {@code from}
+     */
+    public boolean transition(Phase from, Phase to) {
+        while (true) {
+            int current = state.get();
+            if ((current & PHASE_MASK) != from.ordinal()) {
+                return false;
+            }
+            if (state.compareAndSet(current, (current & ~PHASE_MASK) | to.ordinal())) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Cancels the battle from any phase that has not already finished.
+     *
+     * @return false if it had already ended or been canceled
+     */
+    public boolean cancel() {
+        while (true) {
+            int current = state.get();
+            Phase phase = PHASES[current & PHASE_MASK];
+            if (phase == Phase.ENDED || phase == Phase.CANCELED) {
+                return false;
+            }
+            if (state.compareAndSet(current, (current & ~PHASE_MASK) | Phase.CANCELED.ordinal())) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Withdraws a player's readiness, e.g. after they disconnect from the waiting room.
+     *
+     * @return false if the battle is no longer waiting
+     */
+    public boolean clearReady(String username) {
+        int bit = challengerUsername.equals(username) ? CHALLENGER_READY
+                : opponentUsername.equals(username) ? OPPONENT_READY : 0;
+        while (true) {
+            int current = state.get();
+            if ((current & PHASE_MASK) != Phase.WAITING.ordinal()) {
+                return false;
+            }
+            if (bit == 0 || (current & bit) == 0 || state.compareAndSet(current, current & ~bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Records that a player is ready. The call that completes readiness also moves
+     * the battle to ONGOING, so exactly one caller ever sees {@link ReadyOutcome#BOTH_READY}.
+     */
+    public ReadyOutcome markReady(String username) {
+        int bit;
+        if (challengerUsername.equals(username)) {
+            bit = CHALLENGER_READY;
+        } else if (opponentUsername.equals(username)) {
+            bit = OPPONENT_READY;
+        } else {
+            return ReadyOutcome.REJECTED;
+        }
+
+        while (true) {
+            int current = state.get();
+            if ((current & PHASE_MASK) != Phase.WAITING.ordinal()) {
+                return ReadyOutcome.REJECTED;
+            }
+            if ((current & bit) != 0) {
+                return ReadyOutcome.DUPLICATE;
+            }
+            int next = current | bit;
+            boolean bothReady = (next & BOTH_READY_BITS) == BOTH_READY_BITS;
+            if (bothReady) {
+                next = (next & ~PHASE_MASK) | Phase.ONGOING.ordinal();
+            }
+            if (state.compareAndSet(current, next)) {
+                return bothReady ? ReadyOutcome.BOTH_READY : ReadyOutcome.ACCEPTED;
+            }
+        }
+    }
+}
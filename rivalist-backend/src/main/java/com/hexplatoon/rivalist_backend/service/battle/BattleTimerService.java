@@ -1,5 +1,8 @@
 package com.hexplatoon.rivalist_backend.service.battle;
 
+import com.hexplatoon.rivalist_backend.service.battle.actor.BattleActorService;
+import com.hexplatoon.rivalist_backend.service.battle.actor.BattleEvent;
+import com.hexplatoon.rivalist_backend.service.battle.clock.BattleClock;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import java.util.Map;
@@ -10,53 +13,65 @@ import java.util.concurrent.*;
 @Service
 public class BattleTimerService {
 
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
-    private final Map<Long, ScheduledFuture<?>> battleTimers = new ConcurrentHashMap<>();
-    private final Map<Long, ScheduledFuture<?>> readinessTimers = new ConcurrentHashMap<>();
-    private final BattleService battleService;
+    private final BattleClock clock;
+    private final Map<Long, BattleClock.Timeout> battleTimers = new ConcurrentHashMap<>();
+    private final Map<Long, BattleClock.Timeout> readinessTimers = new ConcurrentHashMap<>();
+    private final BattleActorService battleActorService;
 
-    public BattleTimerService(@Lazy BattleService battleService) {
-        this.battleService = battleService;
+    public BattleTimerService(BattleClock clock, @Lazy BattleActorService battleActorService) {
+        this.clock = clock;
+        this.battleActorService = battleActorService;
     }
 
     public void startBattleTimer(Long battleId, int durationSeconds) {
         // Avoid duplicate timers
         if (battleTimers.containsKey(battleId)) return;
 
-        ScheduledFuture<?> future = scheduler.schedule(() -> {
-            battleService.endBattle(battleId);
+        // Only posts to the battle's mailbox, scoring itself runs on the scoring pool
+        BattleClock.Timeout timeout = clock.schedule(() -> {
             battleTimers.remove(battleId);
+            battleActorService.tell(battleId, new BattleEvent.Timeout(BattleEvent.Timeout.Kind.BATTLE_END));
         }, durationSeconds, TimeUnit.SECONDS);
 
-        battleTimers.put(battleId, future);
+        battleTimers.put(battleId, timeout);
     }
 
     public void startReadinessTimer(Long battleId, int durationSeconds) {
         if (readinessTimers.containsKey(battleId)) return;
-        ScheduledFuture<?> future = scheduler.schedule(() -> {;
-            if (!battleService.isBothReady(battleId)){
-                battleService.cancelBattle(battleId);
-            }
+        BattleClock.Timeout timeout = clock.schedule(() -> {
             readinessTimers.remove(battleId);
+            battleActorService.tell(battleId, new BattleEvent.Timeout(BattleEvent.Timeout.Kind.READINESS));
         }, durationSeconds, TimeUnit.SECONDS);
 
-        readinessTimers.put(battleId, future);
+        readinessTimers.put(battleId, timeout);
     }
 
     public void cancelBattleTimer(Long battleId) {
-        ScheduledFuture<?> future = battleTimers.remove(battleId);
-        if (future != null) {
-            future.cancel(true);
+        BattleClock.Timeout timeout = battleTimers.remove(battleId);
+        if (timeout != null) {
+            timeout.cancel();
         }
     }
 
     public void cancelReadinessTimer(Long battleId) {
-        ScheduledFuture<?> future = readinessTimers.remove(battleId);
-        if (future != null) {
-            future.cancel(true);
+        BattleClock.Timeout timeout = readinessTimers.remove(battleId);
+        if (timeout != null) {
+            timeout.cancel();
         }
     }
 
+    /**
+     * Runs a task at a point during a battle, e.g. a progress checkpoint.
+     * The task is dropped if the battle timer is cancelled first.
+     */
+    public BattleClock.Timeout scheduleCheckpoint(Long battleId, int delaySeconds, Runnable task) {
+        return clock.schedule(() -> {
+            if (battleTimers.containsKey(battleId)) {
+                task.run();
+            }
+        }, delaySeconds, TimeUnit.SECONDS);
+    }
+
 //    public void forceEndBattleTimer(Long battleId) {
 //        cancelBattleTimer(battleId);
 //        battleService.endBattle(battleId);
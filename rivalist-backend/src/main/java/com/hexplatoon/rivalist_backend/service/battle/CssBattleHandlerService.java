@@ -2,52 +2,65 @@ package com.hexplatoon.rivalist_backend.service.battle;
 
 import com.hexplatoon.rivalist_backend.dto.battle.CssUserDto;
 import com.hexplatoon.rivalist_backend.dto.battle.Result;
+import com.hexplatoon.rivalist_backend.dto.battle.ScoringTimings;
 import com.hexplatoon.rivalist_backend.dto.battle.config.Config;
 import com.hexplatoon.rivalist_backend.dto.battle.config.CssConfig;
-import com.hexplatoon.rivalist_backend.entity.Battle;
 import com.hexplatoon.rivalist_backend.entity.Image;
 import com.hexplatoon.rivalist_backend.repository.ImageRepository;
-import org.bytedeco.javacpp.BytePointer;
-import org.bytedeco.opencv.global.opencv_imgcodecs;
-import org.bytedeco.opencv.global.opencv_imgproc;
-import org.bytedeco.opencv.opencv_core.Mat;
-import org.bytedeco.opencv.opencv_core.Scalar;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
+import com.hexplatoon.rivalist_backend.service.battle.similarity.ImageSimilarityScorer;
+import com.hexplatoon.rivalist_backend.service.battle.similarity.OpenCvRasters;
+import com.hexplatoon.rivalist_backend.service.battle.similarity.Raster;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
 import java.nio.file.Files;
-import java.util.Base64;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
-import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2GRAY;
-
+@Slf4j
 @Service
 public class CssBattleHandlerService {
 
     private final ImageRepository imageRepository;
     private final BattleService battleService;
+    private final HeadlessRendererPool rendererPool;
+    private final TargetImageCache targetImageCache;
+    private final ImageSimilarityScorer scorer;
+
+    @Value("${rivalist.css.archive-screenshots:false}")
+    private boolean archiveScreenshots;
+
+    @Value("${rivalist.css.screenshot-dir:screenshots}")
+    private String screenshotDir;
 
     private final Map<Long , Config> configMap = new ConcurrentHashMap<>();
     private final Map<Long, Map<String , CssUserDto>> user_Map = new ConcurrentHashMap<>();
 //    private String imagePath1 = "F:\\rivalist\\Rivalist\\rivalist-backend\\screenshots\\screenshot_.png";
-    public CssBattleHandlerService(@Lazy BattleService battleService , ImageRepository imageRepository) {
+    public CssBattleHandlerService(@Lazy BattleService battleService , ImageRepository imageRepository,
+                                   HeadlessRendererPool rendererPool, TargetImageCache targetImageCache,
+                                   List<ImageSimilarityScorer> scorers,
+                                   @Value("${rivalist.css.scorer:ssim}") String scorerName) {
         this.imageRepository = imageRepository;
         this.battleService = battleService;
+        this.rendererPool = rendererPool;
+        this.targetImageCache = targetImageCache;
+        this.scorer = scorers.stream()
+                .filter(s -> s.name().equals(scorerName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown css scorer: " + scorerName));
+        log.info("Scoring css battles with the '{}' scorer", scorerName);
     }
 
     public Config getConfig(Long battleId) {
        Image image = findRandomImages();
-       Integer duration = battleService.getActiveBattleById(battleId).getDuration();
+       Integer duration = battleService.getBattleState(battleId).getDuration();
        Config config = CssConfig.builder()
                .imageUrl(image.getPath())
                .duration(duration)
@@ -58,9 +71,24 @@ public class CssBattleHandlerService {
        return config;
     }
 
+    /**
+     * Puts back the config of a battle recovered after a restart.
+     */
+    public void restoreConfig(Long battleId, Config config) {
+        configMap.put(battleId, config);
+    }
+
+    /**
+     * Drops everything held for a battle that failed to start.
+     */
+    public void discard(Long battleId) {
+        configMap.remove(battleId);
+        user_Map.remove(battleId);
+    }
+
     public void saveUserText(Long battleId, String username, String text) {
         user_Map.computeIfAbsent(battleId, k -> new ConcurrentHashMap<>())
-                .put(username, new CssUserDto(username, text));
+                .put(username, new CssUserDto(null, text));
     }
 
     public Image findById(long id) {
@@ -78,122 +106,37 @@ public class CssBattleHandlerService {
     }
 
 
-    public void captureScreenshot(Long battleId , String username) throws Exception {
-
-        // Optional: Set path if chromedriver isn't in PATH
-        // System.setProperty("webdriver.chrome.driver", "/path/to/chromedriver");
-        String htmlContent = user_Map.get(battleId).get(username).getUserCssCode();
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--headless", "--disable-gpu", "--window-size=400,600");
-        WebDriver driver = new ChromeDriver(options);
-
-        try {
-            // Load raw HTML using data URL
-//            driver.get("data:text/html;charset=utf-8," + java.net.URLEncoder.encode(html, "UTF-8"));
-//            String htmlContent;
-
-            byte[] htmlBytes = htmlContent.getBytes(StandardCharsets.UTF_8);
-            String base64Html = Base64.getEncoder().encodeToString(htmlBytes);
-            String encodedHtml = "data:text/html;base64," + base64Html;
-
-            driver.get(encodedHtml);
-
-
-            // Wait a bit to ensure rendering (optional)
-            Thread.sleep(500);
-
-            // Take screenshot
-            File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            byte[] imageBytes = Files.readAllBytes(screenshot.toPath());
+    /**
+     * Renders a player's submission and returns the PNG screenshot bytes.
+     */
+    public CompletableFuture<byte[]> captureScreenshot(Long battleId , String username) {
+        CssUserDto userDto = user_Map.get(battleId).get(username);
 
-            // Save screenshot to disk with timestamp
-//            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            File savedFile = new File("screenshots/"+ username + ".png");
-
-            user_Map.get(battleId).get(username).setImagePath(savedFile.getAbsolutePath());
-            // Create directory if it doesn't exist
-            savedFile.getParentFile().mkdirs();
-
-            try (FileOutputStream fos = new FileOutputStream(savedFile)) {
-                fos.write(imageBytes);
+        return rendererPool.submit(userDto.getUserCssCode()).thenApply(imageBytes -> {
+            if (archiveScreenshots) {
+                archiveScreenshot(battleId, username, userDto, imageBytes);
             }
-
-            driver.quit();
-            System.out.println("Screenshot captured");
-//            return imageBytes;
-        }
-        catch (Exception e) {
-            System.out.println(e.getMessage());
-        }
-    }
-
-    public Mat downloadImageAsMatFromGoogleDrive(String imageUrl) throws IOException {
-        // Open connection to Google Drive
-        URL url = new URL(imageUrl);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestProperty("User-Agent", "Mozilla/5.0");
-
-        // Read image into a byte array
-        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-        try (InputStream in = connection.getInputStream()) {
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = in.read(buffer)) != -1) {
-                byteStream.write(buffer, 0, bytesRead);
-            }
-        }
-
-        byte[] imageBytes = byteStream.toByteArray();
-        BytePointer bytePointer = new BytePointer(imageBytes);
-
-        // Decode the image using OpenCV
-        Mat image = opencv_imgcodecs.imdecode(new Mat(bytePointer), opencv_imgcodecs.IMREAD_COLOR);
-
-        if (image.empty()) {
-            throw new RuntimeException("❌ Failed to decode image from downloaded data.");
-        }
-
-        return image;
+            return imageBytes;
+        });
     }
 
-    public double compareImages(Long battleId , String username) throws IOException {
-        CssConfig config = (CssConfig)configMap.get(battleId);
-
-        Battle battle = battleService.getActiveBattleById(battleId);
+    // Debug/archival only, scoring never reads these files back
+    private void archiveScreenshot(Long battleId, String username, CssUserDto userDto, byte[] imageBytes) {
+        Path savedFile = Path.of(screenshotDir, String.valueOf(battleId), username + ".png");
         try {
-            captureScreenshot(battleId , battle.getChallenger().getUsername());
-            captureScreenshot(battleId , battle.getOpponent().getUsername());
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            Files.createDirectories(savedFile.getParent());
+            Files.write(savedFile, imageBytes);
+            userDto.setImagePath(savedFile.toAbsolutePath().toString());
+        } catch (IOException e) {
+            log.warn("Could not archive screenshot for battle {}: {}", battleId, e.getMessage());
         }
-        Mat img1 = opencv_imgcodecs.imread(user_Map.get(battleId).get(username).getImagePath());
-        Mat img2 = downloadImageAsMatFromGoogleDrive(config.getImageUrl());
-
-        // Convert images to grayscale
-        Mat gray1 = new Mat();
-        Mat gray2 = new Mat();
-        opencv_imgproc.cvtColor(img1, gray1, COLOR_BGR2GRAY);
-        opencv_imgproc.cvtColor(img2, gray2, COLOR_BGR2GRAY);
-
-        // Resize images if dimensions don't match
-        if (gray1.size().width() != gray2.size().width() || gray1.size().height() != gray2.size().height()) {
-            opencv_imgproc.resize(gray2, gray2, gray1.size());
-        }
-
-        // Compute SSIM (Manually calculating SSIM as JavaCV does not have a direct function)
-        Mat diff = new Mat();
-        org.bytedeco.opencv.global.opencv_core.absdiff(gray1, gray2, diff);
-
-        Scalar mean = org.bytedeco.opencv.global.opencv_core.mean(diff);
-        double similarity = 100 - (mean.get(0)); // Normalize similarity score
+    }
 
-        return Math.max(similarity, 0); // Ensure it doesn't go negative
+    public double compareImages(Raster screenshot, Raster target, CssConfig config) {
+        return scorer.score(screenshot, target, config);
     }
 
-    public double finalScore(Long battleId , String username) throws IOException {
-        double ssimScore = compareImages(battleId , username);
-        Battle battle = battleService.getActiveBattleById(battleId);
-        Integer time = battle.getDuration();
+    public double finalScore(double ssimScore, Integer time) {
         double timeTaken = (30*60 - time)/(3*6);
 
         double ssimWeight = 0.7;
@@ -202,12 +145,43 @@ public class CssBattleHandlerService {
         double score = ssimWeight*ssimScore + timeTakenWeight*timeTaken;
         return score;
     }
+
+    /**
+     * Scores both players of a battle in one pass: the target is fetched once and
+     * each submission is rendered, decoded and compared exactly once. Both renders run
+     * in parallel on the renderer pool; decoding and comparing run on the calling
+     * scoring worker. A submission that fails to render scores zero for that player only.
+     */
     public Result getResult(Long battleId) throws IOException {
-        Battle battle = battleService.getActiveBattleById(battleId);
-        String challengerUsername = battle.getChallenger().getUsername();
-        String  opponentUsername =  battle.getOpponent().getUsername();
-        double challengerScore = finalScore(battleId , challengerUsername);
-        double opponentScore = finalScore(battleId , opponentUsername);
+        long start = System.nanoTime();
+        BattleState battle = battleService.getBattleState(battleId);
+        CssConfig config = (CssConfig)configMap.get(battleId);
+        String challengerUsername = battle.getChallengerUsername();
+        String  opponentUsername =  battle.getOpponentUsername();
+
+        PlayerScore challenger;
+        PlayerScore opponent;
+        long targetNanos;
+        try {
+            Raster target = targetImageCache.get(config.getImageUrl());
+            targetNanos = System.nanoTime() - start;
+            CompletableFuture<Rendered> challengerRender = render(battleId, challengerUsername);
+            CompletableFuture<Rendered> opponentRender = render(battleId, opponentUsername);
+
+            // Decode and compare here, on the scoring worker, rather than on the common pool
+            challenger = scorePlayer(battleId, challengerUsername, challengerRender, target, config);
+            opponent = scorePlayer(battleId, opponentUsername, opponentRender, target, config);
+        } finally {
+            configMap.remove(battleId);
+            user_Map.remove(battleId);
+        }
+        if (challenger.renderFailed() && opponent.renderFailed()) {
+            // Most likely the renderer itself is broken, there is nothing fair to score
+            throw new IllegalStateException("Could not render either submission of battle " + battleId);
+        }
+
+        double challengerScore = finalScore(challenger.similarity(), battle.getDuration());
+        double opponentScore = finalScore(opponent.similarity(), battle.getDuration());
         String winnerUsername, loserUsername;
         double winnerScore, loserScore;
         if(challengerScore >= opponentScore) {
@@ -221,11 +195,66 @@ public class CssBattleHandlerService {
             winnerScore = opponentScore;
             loserScore = challengerScore;
         }
+
+        ScoringTimings timings = ScoringTimings.builder()
+                .targetMs(TimeUnit.NANOSECONDS.toMillis(targetNanos))
+                .renderMs(TimeUnit.NANOSECONDS.toMillis(Math.max(challenger.renderNanos(), opponent.renderNanos())))
+                .decodeMs(TimeUnit.NANOSECONDS.toMillis(Math.max(challenger.decodeNanos(), opponent.decodeNanos())))
+                .compareMs(TimeUnit.NANOSECONDS.toMillis(Math.max(challenger.compareNanos(), opponent.compareNanos())))
+                .totalMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .build();
+        log.info("Scored css battle {} in {}", battleId, timings);
+
         return Result.builder()
                 .winnerUsername(winnerUsername)
                 .loserUsername(loserUsername)
                 .winnerScore(winnerScore+ " Match")
                 .loserScore(loserScore+ " Match")
+                .timings(timings)
                 .build();
     }
+
+    // Completes with null when the player submitted nothing
+    private CompletableFuture<Rendered> render(Long battleId, String username) {
+        Map<String, CssUserDto> submissions = user_Map.get(battleId);
+        if (submissions == null || !submissions.containsKey(username)) {
+            // Nothing submitted, nothing to render
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long submitted = System.nanoTime();
+        return captureScreenshot(battleId, username)
+                .thenApply(imageBytes -> new Rendered(imageBytes, System.nanoTime() - submitted));
+    }
+
+    private PlayerScore scorePlayer(Long battleId, String username, CompletableFuture<Rendered> render,
+                                    Raster target, CssConfig config) {
+        Rendered rendered;
+        Raster screenshot;
+        long decodeStart;
+        long decoded;
+        try {
+            rendered = render.join();
+            if (rendered == null) {
+                return new PlayerScore(0, 0, 0, 0, false);
+            }
+            decodeStart = System.nanoTime();
+            screenshot = OpenCvRasters.decode(rendered.imageBytes(), target.getWidth(), target.getHeight());
+            decoded = System.nanoTime();
+        } catch (RuntimeException e) {
+            log.warn("Could not render {}'s submission in battle {}, scoring it as zero: {}",
+                    username, battleId, e.getMessage());
+            return new PlayerScore(0, 0, 0, 0, true);
+        }
+        double similarity = compareImages(screenshot, target, config);
+        long compared = System.nanoTime();
+        return new PlayerScore(similarity, rendered.renderNanos(), decoded - decodeStart, compared - decoded, false);
+    }
+
+    private record Rendered(byte[] imageBytes, long renderNanos) {
+    }
+
+    private record PlayerScore(double similarity, long renderNanos, long decodeNanos, long compareNanos,
+                               boolean renderFailed) {
+    }
 }
@@ -0,0 +1,305 @@
+package com.hexplatoon.rivalist_backend.service.battle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of warm headless Chrome instances used to render CSS battle submissions.
+ * Renders are queued on a fixed executor (one worker per instance) so callers get
+ * back-pressure instead of spawning a browser per request.
+ */
+@Slf4j
+@Service
+public class HeadlessRendererPool {
+
+    // Resolves once the document has loaded, web fonts are ready, images are decoded
+    // and the layout box has stayed the same for two consecutive animation frames.
+    private static final String RENDER_READY_SCRIPT = """
+            var done = arguments[arguments.length - 1];
+            var nextFrame = window.requestAnimationFrame
+                    ? function (cb) { window.requestAnimationFrame(cb); }
+                    : function (cb) { setTimeout(cb, 16); };
+            function layoutSignature() {
+                var root = document.documentElement;
+                var rect = root.getBoundingClientRect();
+                return rect.width + 'x' + rect.height + ':' + root.scrollWidth + 'x' + root.scrollHeight;
+            }
+            function imagesReady() {
+                for (var i = 0; i < document.images.length; i++) {
+                    if (!document.images[i].complete) return false;
+                }
+                return true;
+            }
+            var fontsReady = document.fonts ? document.fonts.ready : Promise.resolve();
+            fontsReady.then(function () {
+                var last = null;
+                var stableFrames = 0;
+                (function check() {
+                    var signature = layoutSignature();
+                    if (document.readyState === 'complete' && imagesReady() && signature === last) {
+                        stableFrames++;
+                    } else {
+                        stableFrames = 0;
+                    }
+                    last = signature;
+                    if (stableFrames >= 2) {
+                        done(true);
+                    } else {
+                        nextFrame(check);
+                    }
+                })();
+            });
+            """;
+
+    private final int poolSize;
+    private final int maxRendersPerInstance;
+    private final long leaseTimeoutMs;
+    private final long readyTimeoutMs;
+    private final boolean prewarm;
+    private final Supplier<WebDriver> driverFactory;
+
+    private final BlockingQueue<PooledRenderer> idleRenderers = new LinkedBlockingQueue<>();
+    private final AtomicInteger liveRenderers = new AtomicInteger();
+    private final ThreadPoolExecutor renderExecutor;
+
+    private final Timer renderTimer;
+    private final Counter recycledCounter;
+    private volatile boolean closed = false;
+
+    @Autowired
+    public HeadlessRendererPool(
+            MeterRegistry meterRegistry,
+            @Value("${rivalist.renderer.pool-size:2}") int poolSize,
+            @Value("${rivalist.renderer.queue-capacity:32}") int queueCapacity,
+            @Value("${rivalist.renderer.max-renders-per-instance:200}") int maxRendersPerInstance,
+            @Value("${rivalist.renderer.lease-timeout-ms:10000}") long leaseTimeoutMs,
+            @Value("${rivalist.renderer.ready-timeout-ms:2000}") long readyTimeoutMs,
+            @Value("${rivalist.renderer.prewarm:true}") boolean prewarm) {
+        this(meterRegistry, poolSize, queueCapacity, maxRendersPerInstance, leaseTimeoutMs, readyTimeoutMs, prewarm,
+                HeadlessRendererPool::newChromeDriver);
+    }
+
+    /**
+     * @param driverFactory starts one browser instance, replaced by a fake in tests
+     */
+    HeadlessRendererPool(MeterRegistry meterRegistry, int poolSize, int queueCapacity, int maxRendersPerInstance,
+                         long leaseTimeoutMs, long readyTimeoutMs, boolean prewarm,
+                         Supplier<WebDriver> driverFactory) {
+        this.poolSize = poolSize;
+        this.maxRendersPerInstance = maxRendersPerInstance;
+        this.leaseTimeoutMs = leaseTimeoutMs;
+        this.readyTimeoutMs = readyTimeoutMs;
+        this.prewarm = prewarm;
+        this.driverFactory = driverFactory;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.renderExecutor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "css-renderer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.renderTimer = Timer.builder("rivalist.renderer.render.latency")
+                .description("Time to lease a renderer and capture a screenshot")
+                .register(meterRegistry);
+        this.recycledCounter = Counter.builder("rivalist.renderer.recycled")
+                .description("Renderer instances quit after failure or reaching the render limit")
+                .register(meterRegistry);
+        Gauge.builder("rivalist.renderer.queue.depth", renderExecutor, e -> e.getQueue().size())
+                .description("Renders waiting for a free renderer")
+                .register(meterRegistry);
+        Gauge.builder("rivalist.renderer.instances", liveRenderers, AtomicInteger::get)
+                .description("Live headless browser instances")
+                .register(meterRegistry);
+        Gauge.builder("rivalist.renderer.idle", idleRenderers, BlockingQueue::size)
+                .description("Warm renderer instances waiting for work")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!prewarm) return;
+        List<PooledRenderer> warmed = new ArrayList<>();
+        try {
+            for (int i = 0; i < poolSize; i++) {
+                liveRenderers.incrementAndGet();
+                warmed.add(createRenderer());
+            }
+        } catch (RuntimeException e) {
+            liveRenderers.decrementAndGet();
+            log.warn("Could not pre-warm renderer pool: {}", e.getMessage());
+        }
+        idleRenderers.addAll(warmed);
+        log.info("Renderer pool warmed with {} instance(s)", warmed.size());
+    }
+
+    /**
+     * Queues an HTML document for rendering and returns its PNG screenshot.
+     * The returned future fails immediately when the render queue is full.
+     */
+    public CompletableFuture<byte[]> submit(String html) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Renderer pool is shut down"));
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> render(html), renderExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Renderer queue is full, try again later", e));
+        }
+    }
+
+    private byte[] render(String html) {
+        long start = System.nanoTime();
+        PooledRenderer renderer = lease();
+        boolean healthy = false;
+        try {
+            byte[] screenshot = renderer.render(html);
+            healthy = true;
+            return screenshot;
+        } finally {
+            release(renderer, healthy);
+            renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private PooledRenderer lease() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseTimeoutMs);
+        while (true) {
+            PooledRenderer renderer = idleRenderers.poll();
+            if (renderer == null) {
+                if (liveRenderers.incrementAndGet() <= poolSize) {
+                    try {
+                        return createRenderer();
+                    } catch (RuntimeException e) {
+                        liveRenderers.decrementAndGet();
+                        throw e;
+                    }
+                }
+                liveRenderers.decrementAndGet();
+                try {
+                    long remaining = deadline - System.nanoTime();
+                    renderer = remaining > 0 ? idleRenderers.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a renderer", e);
+                }
+                if (renderer == null) {
+                    throw new IllegalStateException("Timed out waiting for a free renderer");
+                }
+            }
+
+            if (renderer.isAlive()) {
+                return renderer;
+            }
+            destroy(renderer);
+        }
+    }
+
+    private void release(PooledRenderer renderer, boolean healthy) {
+        if (closed || !healthy || renderer.renders >= maxRendersPerInstance) {
+            destroy(renderer);
+        } else {
+            idleRenderers.offer(renderer);
+        }
+    }
+
+    private PooledRenderer createRenderer() {
+        WebDriver driver = driverFactory.get();
+        // The ready script gives up at this ceiling and the screenshot is taken as-is
+        driver.manage().timeouts().scriptTimeout(Duration.ofMillis(readyTimeoutMs));
+        return new PooledRenderer(driver);
+    }
+
+    static WebDriver newChromeDriver() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless", "--disable-gpu", "--window-size=400,600");
+        return new ChromeDriver(options);
+    }
+
+    private void destroy(PooledRenderer renderer) {
+        liveRenderers.decrementAndGet();
+        recycledCounter.increment();
+        renderer.quit();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        renderExecutor.shutdownNow();
+        PooledRenderer renderer;
+        while ((renderer = idleRenderers.poll()) != null) {
+            destroy(renderer);
+        }
+    }
+
+    private static class PooledRenderer {
+        private final WebDriver driver;
+        private int renders = 0;
+
+        PooledRenderer(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        byte[] render(String html) {
+            renders++;
+            String base64Html = Base64.getEncoder().encodeToString(html.getBytes(StandardCharsets.UTF_8));
+            driver.get("data:text/html;base64," + base64Html);
+
+            try {
+                ((JavascriptExecutor) driver).executeAsyncScript(RENDER_READY_SCRIPT);
+            } catch (ScriptTimeoutException e) {
+                log.debug("Render did not settle before the ready timeout, capturing anyway");
+            }
+            return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        }
+
+        boolean isAlive() {
+            try {
+                driver.getWindowHandle();
+                return true;
+            } catch (WebDriverException e) {
+                return false;
+            }
+        }
+
+        void quit() {
+            try {
+                driver.quit();
+            } catch (WebDriverException e) {
+                log.warn("Failed to quit renderer: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.hexplatoon.rivalist_backend.service.battle;
+
+import com.hexplatoon.rivalist_backend.entity.Image;
+import com.hexplatoon.rivalist_backend.repository.ImageRepository;
+import com.hexplatoon.rivalist_backend.service.battle.similarity.OpenCvRasters;
+import com.hexplatoon.rivalist_backend.service.battle.similarity.Raster;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of CSS battle target images, decoded once into {@link Raster}s at the
+ * render size. Eviction is bounded by raster byte size.
+ */
+@Slf4j
+@Component
+public class TargetImageCache {
+
+    private final ImageRepository imageRepository;
+    private final long maxBytes;
+    private final int renderWidth;
+    private final int renderHeight;
+
+    // access-ordered, guarded by this
+    private final LinkedHashMap<String, Raster> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes = 0;
+
+    public TargetImageCache(
+            ImageRepository imageRepository,
+            @Value("${rivalist.css.target-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${rivalist.css.render-width:400}") int renderWidth,
+            @Value("${rivalist.css.render-height:600}") int renderHeight) {
+        this.imageRepository = imageRepository;
+        this.maxBytes = maxBytes;
+        this.renderWidth = renderWidth;
+        this.renderHeight = renderHeight;
+    }
+
+    /**
+     * Warms the cache with every target in the catalogue so scoring never waits on a download.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        int loaded = 0;
+        for (Image image : imageRepository.findAll()) {
+            try {
+                get(image.getPath());
+                loaded++;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not preload target image {}: {}", image.getId(), e.getMessage());
+            }
+        }
+        log.info("Preloaded {} target image(s), {} bytes", loaded, totalBytes());
+    }
+
+    /**
+     * Returns the target raster for the given image path, downloading it on a miss.
+     * Rasters are never mutated, so callers may keep using one after it is evicted.
+     */
+    public Raster get(String path) throws IOException {
+        synchronized (this) {
+            Raster cached = entries.get(path);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Raster loaded = OpenCvRasters.decode(download(path), renderWidth, renderHeight);
+        synchronized (this) {
+            Raster raced = entries.get(path);
+            if (raced != null) {
+                // Another thread loaded the same target first, keep theirs
+                return raced;
+            }
+            entries.put(path, loaded);
+            totalBytes += loaded.sizeInBytes();
+            evictOverflow();
+            return loaded;
+        }
+    }
+
+    public synchronized void evict(String path) {
+        Raster removed = entries.remove(path);
+        if (removed != null) {
+            totalBytes -= removed.sizeInBytes();
+        }
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Raster>> iterator = entries.entrySet().iterator();
+        // Always keep the most recently used entry, even if it alone exceeds the budget
+        while (totalBytes > maxBytes && entries.size() > 1 && iterator.hasNext()) {
+            Raster eldest = iterator.next().getValue();
+            iterator.remove();
+            totalBytes -= eldest.sizeInBytes();
+        }
+    }
+
+    private byte[] download(String imageUrl) throws IOException {
+        // Open connection to Google Drive
+        URL url = new URL(imageUrl);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestProperty("User-Agent", "Mozilla/5.0");
+
+        // Read image into a byte array
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (InputStream in = connection.getInputStream()) {
+            in.transferTo(byteStream);
+        }
+        return byteStream.toByteArray();
+    }
+}
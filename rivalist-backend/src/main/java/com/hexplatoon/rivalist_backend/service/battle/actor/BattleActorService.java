@@ -0,0 +1,154 @@
+package com.hexplatoon.rivalist_backend.service.battle.actor;
+
+import com.hexplatoon.rivalist_backend.entity.Battle;
+import com.hexplatoon.rivalist_backend.service.battle.BattleScoringService;
+import com.hexplatoon.rivalist_backend.service.battle.BattleService;
+import com.hexplatoon.rivalist_backend.service.battle.BattleState;
+import com.hexplatoon.rivalist_backend.service.battle.CssBattleHandlerService;
+import com.hexplatoon.rivalist_backend.service.battle.TypingBattleHandlerService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One mailbox per battle. WebSocket handlers, timers and session listeners only
+ * enqueue events; each mailbox drains on its own virtual thread, so a battle's
+ * events run strictly one after another while different battles run in parallel.
+ */
+@Slf4j
+@Service
+public class BattleActorService {
+
+    // Events handled per drain before yielding the thread to other battles
+    private static final int BATCH_SIZE = 64;
+
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final BattleService battleService;
+    private final BattleScoringService battleScoringService;
+    private final TypingBattleHandlerService typingBattleHandlerService;
+    private final CssBattleHandlerService cssBattleHandlerService;
+
+    public BattleActorService(@Lazy BattleService battleService,
+                              @Lazy BattleScoringService battleScoringService,
+                              @Lazy TypingBattleHandlerService typingBattleHandlerService,
+                              @Lazy CssBattleHandlerService cssBattleHandlerService) {
+        this.battleService = battleService;
+        this.battleScoringService = battleScoringService;
+        this.typingBattleHandlerService = typingBattleHandlerService;
+        this.cssBattleHandlerService = cssBattleHandlerService;
+    }
+
+    public void tell(Long battleId, BattleEvent event) {
+        mailboxes.computeIfAbsent(battleId, Mailbox::new).enqueue(event);
+    }
+
+    /**
+     * Fans a disconnect out to every live battle the user is playing. Called once the
+     * user's last session has closed.
+     */
+    public void playerDisconnected(String username) {
+        for (Long battleId : battleService.findLiveBattleIds(username)) {
+            tell(battleId, new BattleEvent.Disconnect(username));
+        }
+    }
+
+    public int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    private void handle(Long battleId, BattleEvent event) {
+        switch (event) {
+            case BattleEvent.Ready ready -> battleService.updateReadiness(ready.username(), battleId);
+            case BattleEvent.Progress progress ->
+                    battleService.updateProgress(battleId, progress.username(), progress.delta());
+            case BattleEvent.Submit submit -> submit(battleId, submit);
+            case BattleEvent.Timeout timeout -> {
+                if (timeout.kind() == BattleEvent.Timeout.Kind.READINESS) {
+                    if (!battleService.isBothReady(battleId)) {
+                        battleService.cancelBattle(battleId);
+                    }
+                } else {
+                    battleScoringService.endBattle(battleId);
+                }
+            }
+            case BattleEvent.Disconnect disconnect -> battleService.handleDisconnect(battleId, disconnect.username());
+        }
+    }
+
+    private void submit(Long battleId, BattleEvent.Submit submit) {
+        BattleState state = battleService.getBattleState(battleId);
+        // Scoring reads the submissions once the battle leaves ONGOING, late ones are dropped
+        if (state == null || state.phase() != BattleState.Phase.ONGOING || !state.isPlayer(submit.username())) {
+            return;
+        }
+        if (state.getCategory() == Battle.Category.TB) {
+            typingBattleHandlerService.saveUserText(battleId, submit.username(), submit.text());
+        } else if (state.getCategory() == Battle.Category.CSS) {
+            cssBattleHandlerService.saveUserText(battleId, submit.username(), submit.text());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private final class Mailbox {
+        private final Long battleId;
+        private final Queue<BattleEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Mailbox(Long battleId) {
+            this.battleId = battleId;
+        }
+
+        void enqueue(BattleEvent event) {
+            queue.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    log.warn("Dropped events for battle {}, shutting down", battleId);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    BattleEvent event = queue.poll();
+                    if (event == null) break;
+                    try {
+                        handle(battleId, event);
+                    } catch (RuntimeException e) {
+                        log.warn("Battle {} rejected {}: {}", battleId, event, e.getMessage());
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!queue.isEmpty()) {
+                    schedule();
+                } else if (battleService.getBattleState(battleId) == null) {
+                    // Battle is over; a late event simply recreates the mailbox and is ignored
+                    mailboxes.remove(battleId, this);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.hexplatoon.rivalist_backend.service.battle.actor;
+
+import com.hexplatoon.rivalist_backend.dto.battle.websocket.BattleProgressWebsocketDto;
+
+/**
+ * Everything that can happen to a live battle. Events for one battle are
+ * processed one at a time, in arrival order, by its mailbox.
+ */
+public sealed interface BattleEvent {
+
+    record Ready(String username) implements BattleEvent {
+    }
+
+    record Progress(String username, BattleProgressWebsocketDto delta) implements BattleEvent {
+    }
+
+    record Submit(String username, String text) implements BattleEvent {
+    }
+
+    record Timeout(Kind kind) implements BattleEvent {
+        public enum Kind {
+            READINESS, BATTLE_END
+        }
+    }
+
+    record Disconnect(String username) implements BattleEvent {
+    }
+}
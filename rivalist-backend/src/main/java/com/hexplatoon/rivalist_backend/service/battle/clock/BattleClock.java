@@ -0,0 +1,24 @@
+package com.hexplatoon.rivalist_backend.service.battle.clock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules one-shot battle deadlines: readiness timeouts, battle end and any
+ * per-battle checkpoints. Tasks run on a worker pool, never on the clock itself.
+ */
+public interface BattleClock {
+
+    Timeout schedule(Runnable task, long delay, TimeUnit unit);
+
+    interface Timeout {
+
+        /**
+         * @return true if the task had not run yet and never will
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+
+        boolean isExpired();
+    }
+}
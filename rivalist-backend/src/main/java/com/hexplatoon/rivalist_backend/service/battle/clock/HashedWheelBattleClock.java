@@ -0,0 +1,260 @@
+package com.hexplatoon.rivalist_backend.service.battle.clock;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel. Scheduling and cancelling are O(1): callers only push onto
+ * lock-free queues, and a single ticker thread moves timeouts into wheel buckets,
+ * unlinks cancelled ones and hands expired tasks to a worker pool. Deadlines longer
+ * than one revolution wait out the remaining rounds in their bucket, so accuracy is
+ * one tick.
+ */
+@Slf4j
+@Component
+public class HashedWheelBattleClock implements BattleClock {
+
+    private static final int INIT = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    // Bounds the work done per tick when a burst of battles is scheduled at once
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<WheelTimeout> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> cancellations = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ExecutorService workers;
+    private final Thread ticker;
+    private final long startNanos = System.nanoTime();
+
+    private volatile boolean running = true;
+    // ticker thread only
+    private long tick = 0;
+
+    public HashedWheelBattleClock(
+            MeterRegistry meterRegistry,
+            @Value("${rivalist.clock.tick-ms:100}") long tickMs,
+            @Value("${rivalist.clock.wheel-size:512}") int wheelSize,
+            @Value("${rivalist.clock.workers:4}") int workerCount) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        int size = Integer.highestOneBit(Math.max(wheelSize, 1) - 1) << 1;
+        this.wheel = new Bucket[Math.max(size, 1)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "battle-clock-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker = new Thread(this::run, "battle-clock-ticker");
+        this.ticker.setDaemon(true);
+
+        Gauge.builder("rivalist.clock.pending", pending, AtomicInteger::get)
+                .description("Battle timers scheduled but not yet fired or cancelled")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker.start();
+    }
+
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Battle clock is stopped");
+        }
+        WheelTimeout timeout = new WheelTimeout(task, elapsedNanos() + Math.max(unit.toNanos(delay), 0));
+        pending.incrementAndGet();
+        additions.add(timeout);
+        return timeout;
+    }
+
+    public int pendingTimeouts() {
+        return pending.get();
+    }
+
+    private long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    private void run() {
+        while (running) {
+            long tickDeadline = tickNanos * (tick + 1);
+            long sleep;
+            while ((sleep = tickDeadline - elapsedNanos()) > 0 && running) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            if (!running) break;
+
+            unlinkCancelled();
+            transferAdditions();
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    private void unlinkCancelled() {
+        WheelTimeout timeout;
+        while ((timeout = cancellations.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferAdditions() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            WheelTimeout timeout = additions.poll();
+            if (timeout == null) break;
+            if (timeout.state != INIT) continue;
+
+            long deadlineTick = timeout.deadlineNanos / tickNanos;
+            timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+            // Already overdue timeouts go in the current bucket and fire this tick
+            long targetTick = Math.max(deadlineTick, tick);
+            wheel[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(ticker);
+        workers.shutdown();
+    }
+
+    private final class WheelTimeout implements Timeout {
+
+        private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private volatile int state = INIT;
+
+        // ticker thread only
+        private long remainingRounds;
+        private Bucket bucket;
+        private WheelTimeout prev;
+        private WheelTimeout next;
+
+        private WheelTimeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, INIT, CANCELLED)) {
+                return false;
+            }
+            pending.decrementAndGet();
+            cancellations.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, INIT, EXPIRED)) {
+                return;
+            }
+            pending.decrementAndGet();
+            try {
+                workers.execute(() -> {
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        log.error("Battle timer task failed", t);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.warn("Dropped a battle timer task, clock is shutting down");
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts, touched only by the ticker thread.
+     */
+    private static final class Bucket {
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(WheelTimeout timeout) {
+            if (timeout.bucket != this) return;
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        void expire() {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.hexplatoon.rivalist_backend.service.battle.similarity;
+
+import com.hexplatoon.rivalist_backend.dto.battle.config.CssConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-channel colour difference. When the battle config carries a palette
+ * ({@code color1}/{@code color2}), half the score is how many of the target's
+ * palette-coloured pixels the submission reproduces in the same colour.
+ */
+@Component
+public class ColorDiffScorer implements ImageSimilarityScorer {
+
+    // Max per-channel distance for a pixel to count as a palette colour
+    private static final int PALETTE_TOLERANCE = 8;
+
+    @Override
+    public String name() {
+        return "color";
+    }
+
+    @Override
+    public double score(Raster submission, Raster target, CssConfig config) {
+        ImageSimilarityScorer.requireSameSize(submission, target);
+        long diff = PixelKernels.sumAbsDiff(submission.getRed(), target.getRed())
+                + PixelKernels.sumAbsDiff(submission.getGreen(), target.getGreen())
+                + PixelKernels.sumAbsDiff(submission.getBlue(), target.getBlue());
+        double channelScore = 100 - 100.0 * diff / (3.0 * 255 * target.pixelCount());
+
+        List<int[]> palette = palette(config);
+        if (palette.isEmpty()) {
+            return channelScore;
+        }
+        int palettePixels = 0;
+        int matched = 0;
+        for (int i = 0; i < target.pixelCount(); i++) {
+            int[] colour = nearestPaletteColour(target, i, palette);
+            if (colour == null) continue;
+            palettePixels++;
+            if (within(submission, i, colour)) {
+                matched++;
+            }
+        }
+        if (palettePixels == 0) {
+            return channelScore;
+        }
+        return 0.5 * channelScore + 0.5 * (100.0 * matched / palettePixels);
+    }
+
+    // The palette colour closest to the pixel, or null if none is within tolerance
+    private static int[] nearestPaletteColour(Raster raster, int index, List<int[]> palette) {
+        int[] nearest = null;
+        int nearestDistance = PALETTE_TOLERANCE + 1;
+        for (int[] colour : palette) {
+            int distance = distance(raster, index, colour);
+            if (distance < nearestDistance) {
+                nearest = colour;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    private static boolean within(Raster raster, int index, int[] colour) {
+        return distance(raster, index, colour) <= PALETTE_TOLERANCE;
+    }
+
+    // Largest per-channel difference
+    private static int distance(Raster raster, int index, int[] colour) {
+        return Math.max(Math.abs((raster.getRed()[index] & 0xFF) - colour[0]),
+                Math.max(Math.abs((raster.getGreen()[index] & 0xFF) - colour[1]),
+                        Math.abs((raster.getBlue()[index] & 0xFF) - colour[2])));
+    }
+
+    private static List<int[]> palette(CssConfig config) {
+        List<int[]> palette = new ArrayList<>(2);
+        if (config == null) return palette;
+        for (String hex : new String[]{config.getColor1(), config.getColor2()}) {
+            int[] rgb = parseHex(hex);
+            if (rgb != null) palette.add(rgb);
+        }
+        return palette;
+    }
+
+    // Accepts #rgb and #rrggbb, anything else is ignored
+    private static int[] parseHex(String hex) {
+        if (hex == null) return null;
+        String value = hex.trim();
+        if (value.startsWith("#")) value = value.substring(1);
+        if (value.length() == 3) {
+            value = "" + value.charAt(0) + value.charAt(0) + value.charAt(1) + value.charAt(1)
+                    + value.charAt(2) + value.charAt(2);
+        }
+        if (value.length() != 6) return null;
+        try {
+            int rgb = Integer.parseInt(value, 16);
+            return new int[]{(rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
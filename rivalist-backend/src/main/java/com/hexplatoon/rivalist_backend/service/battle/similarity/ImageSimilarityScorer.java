@@ -0,0 +1,28 @@
+package com.hexplatoon.rivalist_backend.service.battle.similarity;
+
+import com.hexplatoon.rivalist_backend.dto.battle.config.CssConfig;
+
+/**
+ * Scores how closely a rendered CSS submission matches the battle target.
+ * Implementations are Spring beans selected by {@link #name()} through
+ * {@code rivalist.css.scorer}.
+ */
+public interface ImageSimilarityScorer {
+
+    String name();
+
+    /**
+     * @param submission the rendered submission, same size as the target
+     * @param target     the battle target
+     * @param config     the battle config, for palette-aware scorers
+     * @return similarity between 0 (nothing alike) and 100 (identical)
+     */
+    double score(Raster submission, Raster target, CssConfig config);
+
+    static void requireSameSize(Raster submission, Raster target) {
+        if (!submission.sameSizeAs(target)) {
+            throw new IllegalArgumentException("Submission is " + submission.getWidth() + "x" + submission.getHeight()
+                    + " but target is " + target.getWidth() + "x" + target.getHeight());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hexplatoon.rivalist_backend.service.battle.similarity;
+
+import com.hexplatoon.rivalist_backend.dto.battle.config.CssConfig;
+import org.springframework.stereotype.Component;
+
+/**
+ * The original score: {@code 100 - mean(|gray diff|)}, kept so old results stay reproducible.
+ */
+@Component
+public class MeanDiffScorer implements ImageSimilarityScorer {
+
+    @Override
+    public String name() {
+        return "mean-diff";
+    }
+
+    @Override
+    public double score(Raster submission, Raster target, CssConfig config) {
+        ImageSimilarityScorer.requireSameSize(submission, target);
+        double mean = (double) PixelKernels.sumAbsDiff(submission.getGray(), target.getGray()) / target.pixelCount();
+        return Math.max(100 - mean, 0);
+    }
+}
@@ -0,0 +1,41 @@
+package com.hexplatoon.rivalist_backend.service.battle.similarity;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Size;
+
+/**
+ * Decodes PNG/JPEG bytes into a {@link Raster}. OpenCV is only used for the codec
+ * and resize; native memory is released before this returns.
+ */
+public final class OpenCvRasters {
+
+    private OpenCvRasters() {
+    }
+
+    /**
+     * Decodes an encoded image and resizes it to {@code width x height} if needed.
+     */
+    public static Raster decode(byte[] encodedImage, int width, int height) {
+        try (BytePointer bytePointer = new BytePointer(encodedImage);
+             Mat encoded = new Mat(bytePointer);
+             Mat color = opencv_imgcodecs.imdecode(encoded, opencv_imgcodecs.IMREAD_COLOR);
+             Mat resized = new Mat()) {
+            if (color.empty()) {
+                throw new RuntimeException("Failed to decode image data.");
+            }
+            Mat source = color;
+            if (color.cols() != width || color.rows() != height) {
+                try (Size size = new Size(width, height)) {
+                    opencv_imgproc.resize(color, resized, size);
+                }
+                source = resized;
+            }
+            byte[] bgr = new byte[width * height * 3];
+            source.data().get(bgr);
+            return Raster.fromBgr(width, height, bgr);
+        }
+    }
+}
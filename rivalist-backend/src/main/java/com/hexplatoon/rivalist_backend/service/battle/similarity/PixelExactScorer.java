@@ -0,0 +1,22 @@
+package com.hexplatoon.rivalist_backend.service.battle.similarity;
+
+import com.hexplatoon.rivalist_backend.dto.battle.config.CssConfig;
+import org.springframework.stereotype.Component;
+
+/**
+ * Percentage of pixels whose colour matches the target exactly.
+ */
+@Component
+public class PixelExactScorer implements ImageSimilarityScorer {
+
+    @Override
+    public String name() {
+        return "exact";
+    }
+
+    @Override
+    public double score(Raster submission, Raster target, CssConfig config) {
+        ImageSimilarityScorer.requireSameSize(submission, target);
+        return 100.0 * PixelKernels.countEqualPixels(submission, target) / target.pixelCount();
+    }
+}
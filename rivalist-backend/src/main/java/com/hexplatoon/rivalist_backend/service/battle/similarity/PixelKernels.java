@@ -0,0 +1,87 @@
+package com.hexplatoon.rivalist_backend.service.battle.similarity;
+
+import java.util.Arrays;
+
+/**
+ * Hot loops shared by the scorers, as plain loops. Builds with the {@code vector} profile
+ * also carry {@code VectorPixelKernels}, which takes over when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}.
+ */
+class PixelKernels {
+
+    static final PixelKernels SCALAR = new PixelKernels();
+    static final PixelKernels ACTIVE = loadVectorKernels();
+
+    /**
+     * Sum of |a[i] - b[i]| over unsigned bytes.
+     */
+    static long sumAbsDiff(byte[] a, byte[] b) {
+        return ACTIVE.absDiffSum(a, b);
+    }
+
+    /**
+     * Number of pixels whose three channels are all identical.
+     */
+    static int countEqualPixels(Raster a, Raster b) {
+        return ACTIVE.equalPixelCount(a, b);
+    }
+
+    /**
+     * Per-column sums of x, y, x², y² and xy over {@code rows} rows of two grayscale
+     * images, starting at row {@code top}. Written to {@code sums} as five runs of
+     * {@code width} in that order.
+     */
+    static void columnSums(byte[] x, byte[] y, int width, int top, int rows, int[] sums) {
+        ACTIVE.stripColumnSums(x, y, width, top, rows, sums);
+    }
+
+    long absDiffSum(byte[] a, byte[] b) {
+        long sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += Math.abs((a[i] & 0xFF) - (b[i] & 0xFF));
+        }
+        return sum;
+    }
+
+    int equalPixelCount(Raster a, Raster b) {
+        byte[] ar = a.getRed(), ag = a.getGreen(), ab = a.getBlue();
+        byte[] br = b.getRed(), bg = b.getGreen(), bb = b.getBlue();
+        int equal = 0;
+        for (int i = 0; i < ar.length; i++) {
+            if (ar[i] == br[i] && ag[i] == bg[i] && ab[i] == bb[i]) {
+                equal++;
+            }
+        }
+        return equal;
+    }
+
+    void stripColumnSums(byte[] x, byte[] y, int width, int top, int rows, int[] sums) {
+        Arrays.fill(sums, 0, 5 * width, 0);
+        for (int row = top; row < top + rows; row++) {
+            int offset = row * width;
+            for (int c = 0; c < width; c++) {
+                int a = x[offset + c] & 0xFF;
+                int b = y[offset + c] & 0xFF;
+                sums[c] += a;
+                sums[width + c] += b;
+                sums[2 * width + c] += a * a;
+                sums[3 * width + c] += b * b;
+                sums[4 * width + c] += a * b;
+            }
+        }
+    }
+
+    private static PixelKernels loadVectorKernels() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            return (PixelKernels) Class.forName(PixelKernels.class.getPackageName() + ".VectorPixelKernels")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Built without the vector profile
+            return SCALAR;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.hexplatoon.rivalist_backend.service.battle.similarity;
+
+import lombok.Getter;
+
+/**
+ * Planar 8-bit image held on the Java heap. Each channel is stored as its own
+ * unsigned byte array so similarity kernels can stream over contiguous memory.
+ */
+@Getter
+public final class Raster {
+
+    private final int width;
+    private final int height;
+    private final byte[] red;
+    private final byte[] green;
+    private final byte[] blue;
+    private final byte[] gray;
+
+    private Raster(int width, int height, byte[] red, byte[] green, byte[] blue, byte[] gray) {
+        this.width = width;
+        this.height = height;
+        this.red = red;
+        this.green = green;
+        this.blue = blue;
+        this.gray = gray;
+    }
+
+    /**
+     * Builds a raster from interleaved BGR bytes, the layout OpenCV decodes into.
+     */
+    public static Raster fromBgr(int width, int height, byte[] bgr) {
+        int pixels = width * height;
+        if (bgr.length < pixels * 3) {
+            throw new IllegalArgumentException("Expected " + pixels * 3 + " BGR bytes but got " + bgr.length);
+        }
+        byte[] red = new byte[pixels];
+        byte[] green = new byte[pixels];
+        byte[] blue = new byte[pixels];
+        byte[] gray = new byte[pixels];
+        for (int i = 0, j = 0; i < pixels; i++, j += 3) {
+            int b = bgr[j] & 0xFF;
+            int g = bgr[j + 1] & 0xFF;
+            int r = bgr[j + 2] & 0xFF;
+            blue[i] = (byte) b;
+            green[i] = (byte) g;
+            red[i] = (byte) r;
+            // Same fixed-point luma weights as OpenCV's BGR2GRAY
+            gray[i] = (byte) ((r * 4899 + g * 9617 + b * 1868 + 8192) >> 14);
+        }
+        return new Raster(width, height, red, green, blue, gray);
+    }
+
+    public int pixelCount() {
+        return width * height;
+    }
+
+    public long sizeInBytes() {
+        return 4L * pixelCount();
+    }
+
+    public boolean sameSizeAs(Raster other) {
+        return width == other.width && height == other.height;
+    }
+}
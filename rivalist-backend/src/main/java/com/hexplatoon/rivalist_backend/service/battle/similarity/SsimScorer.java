@@ -0,0 +1,87 @@
+package com.hexplatoon.rivalist_backend.service.battle.similarity;
+
+import com.hexplatoon.rivalist_backend.dto.battle.config.CssConfig;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mean structural similarity (SSIM) over the luma channel, using 8x8 box windows
+ * that overlap by half a window.
+ * <p>
+ * Since windows step by half their size, every window is made of 4x4 blocks shared
+ * with its neighbours. Column sums are taken per strip of 4 rows by
+ * {@link PixelKernels#columnSums}, which is vectorised when the vector kernels are
+ * active, and each window adds up two strips and two half-width column blocks.
+ */
+@Component
+public class SsimScorer implements ImageSimilarityScorer {
+
+    private static final int WINDOW = 8;
+    private static final int STRIDE = 4;
+    private static final double C1 = Math.pow(0.01 * 255, 2);
+    private static final double C2 = Math.pow(0.03 * 255, 2);
+
+    @Override
+    public String name() {
+        return "ssim";
+    }
+
+    @Override
+    public double score(Raster submission, Raster target, CssConfig config) {
+        ImageSimilarityScorer.requireSameSize(submission, target);
+        int width = target.getWidth();
+        int height = target.getHeight();
+        if (width < WINDOW || height < WINDOW) {
+            return new MeanDiffScorer().score(submission, target, config);
+        }
+
+        byte[] x = submission.getGray();
+        byte[] y = target.getGray();
+        int blocks = width / STRIDE;
+        int[] upper = new int[5 * width];
+        int[] lower = new int[5 * width];
+        // Sums of x, y, x², y² and xy per 4-column block of the current 8-row band
+        int[] blockSums = new int[5 * blocks];
+        PixelKernels.columnSums(x, y, width, 0, STRIDE, upper);
+
+        double total = 0;
+        int windows = 0;
+        for (int top = 0; top + WINDOW <= height; top += STRIDE) {
+            PixelKernels.columnSums(x, y, width, top + STRIDE, STRIDE, lower);
+            for (int sum = 0; sum < 5; sum++) {
+                for (int block = 0; block < blocks; block++) {
+                    int blockSum = 0;
+                    for (int c = sum * width + block * STRIDE, end = c + STRIDE; c < end; c++) {
+                        blockSum += upper[c] + lower[c];
+                    }
+                    blockSums[sum * blocks + block] = blockSum;
+                }
+            }
+            for (int block = 0; block + 1 < blocks; block++) {
+                total += windowSsim(blockSums, blocks, block);
+                windows++;
+            }
+            // The lower strip is the upper strip of the next band
+            int[] swap = upper;
+            upper = lower;
+            lower = swap;
+        }
+        return Math.max(total / windows, 0) * 100;
+    }
+
+    // The window covering blocks block and block + 1
+    private static double windowSsim(int[] blockSums, int blocks, int block) {
+        int sumX = blockSums[block] + blockSums[block + 1];
+        int sumY = blockSums[blocks + block] + blockSums[blocks + block + 1];
+        int sumXX = blockSums[2 * blocks + block] + blockSums[2 * blocks + block + 1];
+        int sumYY = blockSums[3 * blocks + block] + blockSums[3 * blocks + block + 1];
+        int sumXY = blockSums[4 * blocks + block] + blockSums[4 * blocks + block + 1];
+        double n = WINDOW * WINDOW;
+        double meanX = sumX / n;
+        double meanY = sumY / n;
+        double varX = sumXX / n - meanX * meanX;
+        double varY = sumYY / n - meanY * meanY;
+        double covariance = sumXY / n - meanX * meanY;
+        return ((2 * meanX * meanY + C1) * (2 * covariance + C2))
+                / ((meanX * meanX + meanY * meanY + C1) * (varX + varY + C2));
+    }
+}
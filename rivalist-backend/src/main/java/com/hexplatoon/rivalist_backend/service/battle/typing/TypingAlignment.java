@@ -0,0 +1,223 @@
+package com.hexplatoon.rivalist_backend.service.battle.typing;
+
+import java.util.Arrays;
+
+/**
+ * Aligns typed text against a prefix of the original passage with a banded edit
+ * distance, so a skipped or doubled word only costs its own characters instead of
+ * shifting everything after it out of place.
+ * <p>
+ * One DP row is kept per typed character, which makes appends and backspaces O(band)
+ * and lets the alignment follow a player keystroke by keystroke. The band follows the
+ * best match of the previous row rather than the diagonal, so drift from earlier skips
+ * does not accumulate. Buffers only grow, there is no per-keystroke allocation.
+ */
+public final class TypingAlignment {
+
+    public static final int DEFAULT_BAND = 16;
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private final CharSequence original;
+    private final int band;
+    private final int width;
+
+    private char[] typed;
+    // Row r covers original prefixes j in [lo[r], lo[r] + width); index r * width + (j - lo[r])
+    private int[] cost;
+    private int[] matches;
+    private int[] lo;
+    private int[] bestJ;
+    private char[] scratch = new char[0];
+    private int length = 0;
+
+    public TypingAlignment(CharSequence original) {
+        this(original, DEFAULT_BAND);
+    }
+
+    public TypingAlignment(CharSequence original, int band) {
+        this.original = original;
+        this.band = band;
+        this.width = 2 * band + 1;
+        int capacity = original.length() + 16;
+        this.typed = new char[capacity];
+        this.cost = new int[(capacity + 1) * width];
+        this.matches = new int[(capacity + 1) * width];
+        this.lo = new int[capacity + 1];
+        this.bestJ = new int[capacity + 1];
+        initFirstRow();
+    }
+
+    /**
+     * Scores a complete typed text in one pass.
+     */
+    public static TypingAlignment of(CharSequence original, CharSequence typed) {
+        TypingAlignment alignment = new TypingAlignment(original);
+        if (typed != null) {
+            for (int i = 0; i < typed.length(); i++) {
+                alignment.append(typed.charAt(i));
+            }
+        }
+        return alignment;
+    }
+
+    public void append(char c) {
+        ensureCapacity(length + 1);
+        typed[length] = c;
+        length++;
+        computeRow(length, c);
+    }
+
+    public void backspace() {
+        if (length > 0) length--;
+    }
+
+    /**
+     * Replaces {@code deleted} typed chars at {@code offset} with {@code inserted}.
+     * Only rows from {@code offset} onwards are recomputed.
+     */
+    public void replace(int offset, int deleted, CharSequence inserted) {
+        int tailStart = offset + deleted;
+        int tailLength = length - tailStart;
+        if (scratch.length < tailLength) {
+            scratch = new char[Math.max(tailLength, scratch.length * 2)];
+        }
+        System.arraycopy(typed, tailStart, scratch, 0, tailLength);
+        length = offset;
+        for (int i = 0; i < inserted.length(); i++) {
+            append(inserted.charAt(i));
+        }
+        for (int i = 0; i < tailLength; i++) {
+            append(scratch[i]);
+        }
+    }
+
+    public int typedLength() {
+        return length;
+    }
+
+    public String typedText() {
+        return new String(typed, 0, length);
+    }
+
+    /**
+     * Typed chars that line up with the passage in the best alignment.
+     */
+    public int correctChars() {
+        return matches[length * width + bestJ[length] - lo[length]];
+    }
+
+    /**
+     * Substituted, extra and skipped chars in the best alignment.
+     */
+    public int errors() {
+        return cost[length * width + bestJ[length] - lo[length]];
+    }
+
+    /**
+     * How far into the passage the player has got.
+     */
+    public int originalPosition() {
+        return bestJ[length];
+    }
+
+    public double accuracy() {
+        int correct = correctChars();
+        int total = correct + errors();
+        return total == 0 ? 100 : 100.0 * correct / total;
+    }
+
+    public double grossWpm(double seconds) {
+        return seconds <= 0 ? 0 : length / 5.0 / (seconds / 60);
+    }
+
+    public double netWpm(double seconds) {
+        return seconds <= 0 ? 0 : correctChars() / 5.0 / (seconds / 60);
+    }
+
+    private void initFirstRow() {
+        // Typing nothing against a prefix of length j means skipping j chars
+        lo[0] = 0;
+        int hi = Math.min(original.length(), width - 1);
+        for (int j = 0; j < width; j++) {
+            cost[j] = j <= hi ? j : INF;
+            matches[j] = 0;
+        }
+        bestJ[0] = 0;
+    }
+
+    private void computeRow(int row, char c) {
+        int prevBase = (row - 1) * width;
+        int prevLo = lo[row - 1];
+        int prevHi = prevLo + width - 1;
+
+        int rowLo = Math.max(0, bestJ[row - 1] + 1 - band);
+        int rowHi = Math.min(original.length(), rowLo + width - 1);
+        int base = row * width;
+        lo[row] = rowLo;
+        // Between equally good cells keep to the diagonal, so a run of typos still moves the band forward
+        int expected = Math.min(original.length(), bestJ[row - 1] + 1);
+
+        int best = -1;
+        for (int j = rowLo; j < rowLo + width; j++) {
+            int k = base + j - rowLo;
+            if (j > rowHi) {
+                cost[k] = INF;
+                matches[k] = 0;
+                continue;
+            }
+            int bestCost = INF;
+            int bestMatches = 0;
+
+            // typed char aligned with original char j-1
+            if (j >= 1 && j - 1 >= prevLo && j - 1 <= prevHi && cost[prevBase + j - 1 - prevLo] < INF) {
+                boolean same = original.charAt(j - 1) == c;
+                bestCost = cost[prevBase + j - 1 - prevLo] + (same ? 0 : 1);
+                bestMatches = matches[prevBase + j - 1 - prevLo] + (same ? 1 : 0);
+            }
+            // extra typed char
+            if (j >= prevLo && j <= prevHi && cost[prevBase + j - prevLo] < INF) {
+                int candidate = cost[prevBase + j - prevLo] + 1;
+                int candidateMatches = matches[prevBase + j - prevLo];
+                if (candidate < bestCost || (candidate == bestCost && candidateMatches > bestMatches)) {
+                    bestCost = candidate;
+                    bestMatches = candidateMatches;
+                }
+            }
+            // skipped original char
+            if (j - 1 >= rowLo && cost[k - 1] < INF) {
+                int candidate = cost[k - 1] + 1;
+                int candidateMatches = matches[k - 1];
+                if (candidate < bestCost || (candidate == bestCost && candidateMatches > bestMatches)) {
+                    bestCost = candidate;
+                    bestMatches = candidateMatches;
+                }
+            }
+            cost[k] = bestCost;
+            matches[k] = bestMatches;
+
+            if (bestCost < INF && (best < 0 || isBetter(bestCost, bestMatches, j, cost[base + best - rowLo],
+                    matches[base + best - rowLo], best, expected))) {
+                best = j;
+            }
+        }
+        // Only possible if the band lost every path, fall back to the diagonal
+        bestJ[row] = best >= 0 ? best : Math.min(rowHi, bestJ[row - 1] + 1);
+    }
+
+    private static boolean isBetter(int cost, int matches, int j, int bestCost, int bestMatches, int best, int expected) {
+        if (cost != bestCost) return cost < bestCost;
+        if (matches != bestMatches) return matches > bestMatches;
+        return Math.abs(j - expected) < Math.abs(best - expected);
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows < lo.length) return;
+        int capacity = Math.max(rows + 1, lo.length * 2);
+        typed = Arrays.copyOf(typed, capacity);
+        cost = Arrays.copyOf(cost, capacity * width);
+        matches = Arrays.copyOf(matches, capacity * width);
+        lo = Arrays.copyOf(lo, capacity);
+        bestJ = Arrays.copyOf(bestJ, capacity);
+    }
+}
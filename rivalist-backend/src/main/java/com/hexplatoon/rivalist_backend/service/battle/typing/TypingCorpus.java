@@ -0,0 +1,116 @@
+package com.hexplatoon.rivalist_backend.service.battle.typing;
+
+import com.github.javafaker.Faker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Typing battle passages, generated once at startup from a seeded Faker. Picking a
+ * passage is an array lookup, and the same seed always yields the same corpus, so
+ * {@code (seed, difficulty, index)} identifies a passage across restarts.
+ */
+@Slf4j
+@Component
+public class TypingCorpus {
+
+    public enum Difficulty {
+        EASY(5), MEDIUM(7), HARD(12);
+
+        private final int maxWordLength;
+
+        Difficulty(int maxWordLength) {
+            this.maxWordLength = maxWordLength;
+        }
+    }
+
+    public record Passage(Difficulty difficulty, int index, String text) {
+    }
+
+    private static final Pattern STRIP = Pattern.compile("[.,!?':\"’;+π/0123456789%=–…‘—#()\\-]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long seed;
+    private final Map<Difficulty, String[]> passages = new EnumMap<>(Difficulty.class);
+
+    public TypingCorpus(
+            @Value("${rivalist.typing.corpus.seed:20250401}") long seed,
+            @Value("${rivalist.typing.corpus.passages-per-tier:256}") int passagesPerTier,
+            @Value("${rivalist.typing.corpus.words-per-passage:150}") int wordsPerPassage) {
+        this.seed = seed;
+        long start = System.nanoTime();
+        for (Difficulty difficulty : Difficulty.values()) {
+            // Each tier gets its own generator so tiers stay stable if another one changes
+            Random random = new Random(seed * 31 + difficulty.ordinal());
+            Faker faker = new Faker(random);
+            String[] tier = new String[passagesPerTier];
+            for (int i = 0; i < passagesPerTier; i++) {
+                tier[i] = buildPassage(faker, random, difficulty, wordsPerPassage);
+            }
+            passages.put(difficulty, tier);
+        }
+        log.info("Built typing corpus (seed {}) with {} passages per tier in {} ms",
+                seed, passagesPerTier, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public Passage pick(Difficulty difficulty) {
+        String[] tier = passages.get(difficulty);
+        int index = ThreadLocalRandom.current().nextInt(tier.length);
+        return new Passage(difficulty, index, tier[index]);
+    }
+
+    /**
+     * Looks up a passage by index, e.g. to replay a battle. Returns null if out of range.
+     */
+    public Passage get(Difficulty difficulty, int index) {
+        String[] tier = passages.get(difficulty);
+        return index >= 0 && index < tier.length ? new Passage(difficulty, index, tier[index]) : null;
+    }
+
+    private static String buildPassage(Faker faker, Random random, Difficulty difficulty, int wordCount) {
+        List<String> words = new ArrayList<>(wordCount);
+        while (words.size() < wordCount) {
+            String sentence = STRIP.matcher(randomSentence(faker, random)).replaceAll("").toLowerCase();
+            for (String word : WHITESPACE.split(sentence)) {
+                if (!word.isEmpty() && word.length() <= difficulty.maxWordLength) {
+                    words.add(word);
+                    if (words.size() >= wordCount) break;
+                }
+            }
+        }
+        return String.join(" ", words);
+    }
+
+    private static String randomSentence(Faker faker, Random random) {
+        return switch (random.nextInt(15)) {
+            case 0 -> faker.hitchhikersGuideToTheGalaxy().quote();
+            case 1 -> faker.book().title() + " by " + faker.book().author();
+            case 2 -> faker.company().catchPhrase();
+            case 3 -> faker.shakespeare().kingRichardIIIQuote();
+            case 4 -> faker.shakespeare().asYouLikeItQuote();
+            case 5 -> faker.shakespeare().hamletQuote();
+            case 6 -> faker.shakespeare().romeoAndJulietQuote();
+            case 7 -> faker.yoda().quote();
+            case 8 -> faker.chuckNorris().fact();
+            case 9 -> faker.friends().quote();
+            case 10 -> faker.gameOfThrones().quote();
+            case 11 -> faker.harryPotter().quote();
+            case 12 -> faker.lordOfTheRings().character();
+            case 13 -> faker.artist().name() + " plays " + faker.music().instrument();
+            case 14 -> faker.superhero().name() + " can " + faker.superhero().power();
+            default -> faker.educator().course();
+        };
+    }
+}
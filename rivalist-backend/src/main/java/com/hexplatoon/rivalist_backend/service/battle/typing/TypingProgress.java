@@ -0,0 +1,88 @@
+package com.hexplatoon.rivalist_backend.service.battle.typing;
+
+import com.hexplatoon.rivalist_backend.dto.battle.progress.BattleProgress;
+import com.hexplatoon.rivalist_backend.dto.battle.websocket.BattleProgressSnapshotDto;
+
+/**
+ * A player's typed text during a typing battle, rebuilt from keystroke deltas.
+ * Deltas are applied by the battle's mailbox; the broadcaster only takes snapshots.
+ */
+public class TypingProgress implements BattleProgress {
+
+    // A single delta is a keystroke or a paste, anything bigger is rejected
+    private static final int MAX_INSERT_LENGTH = 256;
+    // The typed text may run this many times past the passage, which bounds the alignment's memory
+    private static final int MAX_TYPED_LENGTH_FACTOR = 2;
+
+    private final String originalText;
+    private final int maxTypedLength;
+    private final TypingAlignment alignment;
+    private long lastSeq = -1;
+    private long startedAtNanos = 0;
+    private int keystrokes = 0;
+    private int correctKeystrokes = 0;
+    private boolean dirty = false;
+
+    public TypingProgress(String originalText) {
+        this.originalText = originalText;
+        this.maxTypedLength = MAX_TYPED_LENGTH_FACTOR * originalText.length();
+        this.alignment = new TypingAlignment(originalText);
+    }
+
+    /**
+     * Replaces {@code deleted} chars at {@code offset} with {@code inserted}.
+     *
+     * @return false if the delta was a duplicate, out of range or would make the text too long
+     */
+    public synchronized boolean apply(long seq, int offset, int deleted, String inserted) {
+        String insert = inserted == null ? "" : inserted;
+        int length = alignment.typedLength();
+        if (seq <= lastSeq || offset < 0 || offset > length || deleted < 0 || deleted > length - offset
+                || insert.length() > MAX_INSERT_LENGTH || length - deleted + insert.length() > maxTypedLength) {
+            return false;
+        }
+        lastSeq = seq;
+        if (startedAtNanos == 0) {
+            startedAtNanos = System.nanoTime();
+        }
+
+        if (offset == length && deleted == 0) {
+            // Appends are judged key by key against where the player is in the passage
+            for (int i = 0; i < insert.length(); i++) {
+                char c = insert.charAt(i);
+                int position = alignment.originalPosition();
+                keystrokes++;
+                if (position < originalText.length() && originalText.charAt(position) == c) {
+                    correctKeystrokes++;
+                }
+                alignment.append(c);
+            }
+        } else {
+            alignment.replace(offset, deleted, insert);
+        }
+        dirty = true;
+        return true;
+    }
+
+    public synchronized String typedText() {
+        return alignment.typedText();
+    }
+
+    /**
+     * Returns a snapshot if anything changed since the last one, otherwise null.
+     */
+    public synchronized BattleProgressSnapshotDto takeSnapshotIfDirty(Long battleId, String username) {
+        if (!dirty) return null;
+        dirty = false;
+        double seconds = startedAtNanos == 0 ? 0 : (System.nanoTime() - startedAtNanos) / 1e9;
+        return BattleProgressSnapshotDto.builder()
+                .battleId(battleId)
+                .username(username)
+                .cursor(alignment.originalPosition())
+                .correctChars(alignment.correctChars())
+                .errors(alignment.errors())
+                .wpm(alignment.netWpm(seconds))
+                .accuracy(keystrokes == 0 ? 100 : 100.0 * correctKeystrokes / keystrokes)
+                .build();
+    }
+}
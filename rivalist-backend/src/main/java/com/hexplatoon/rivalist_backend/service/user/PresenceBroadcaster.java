@@ -0,0 +1,125 @@
+package com.hexplatoon.rivalist_backend.service.user;
+
+import com.hexplatoon.rivalist_backend.dto.user.UserStatusDto;
+import com.hexplatoon.rivalist_backend.entity.User;
+import com.hexplatoon.rivalist_backend.repository.UserRepository;
+import com.hexplatoon.rivalist_backend.service.FriendGraphCache;
+import com.hexplatoon.rivalist_backend.service.StompFanoutService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Tells a user's friends about status changes. Changes are debounced per user: the
+ * first change opens a window and whatever the status is when it closes is sent, so
+ * a connection that flaps within the window costs one message per friend, or none
+ * if it ends where it started. Friends come from {@link FriendGraphCache}, their
+ * usernames are looked up once per broadcast.
+ */
+@Slf4j
+@Service
+public class PresenceBroadcaster {
+
+    private static final String DESTINATION = "/topic/user/status";
+    // Users per username query, keeps the IN list reasonable
+    private static final int LOOKUP_BATCH_SIZE = 500;
+
+    private final FriendGraphCache friendGraphCache;
+    private final UserRepository userRepository;
+    private final StompFanoutService stompFanoutService;
+    private final long windowMs;
+    private final LongSupplier clock;
+
+    private final Map<Long, PendingStatus> pending = new ConcurrentHashMap<>();
+    private final Map<Long, User.UserStatus> lastSent = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PresenceBroadcaster(FriendGraphCache friendGraphCache,
+                               UserRepository userRepository,
+                               StompFanoutService stompFanoutService,
+                               @Value("${rivalist.presence.broadcast-window-ms:2000}") long windowMs) {
+        this(friendGraphCache, userRepository, stompFanoutService, windowMs, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock epoch millis, replaced by a manual clock in benchmarks
+     */
+    PresenceBroadcaster(FriendGraphCache friendGraphCache, UserRepository userRepository,
+                        StompFanoutService stompFanoutService, long windowMs, LongSupplier clock) {
+        this.friendGraphCache = friendGraphCache;
+        this.userRepository = userRepository;
+        this.stompFanoutService = stompFanoutService;
+        this.windowMs = windowMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Queues the user's current status for their friends. A change inside an open
+     * window replaces the queued status but keeps the window's deadline.
+     */
+    public void statusChanged(User user) {
+        PendingStatus latest = new PendingStatus(user.getId(), user.getUsername(), user.getStatus(),
+                clock.getAsLong() + windowMs);
+        pending.merge(user.getId(), latest,
+                (queued, next) -> new PendingStatus(next.userId(), next.username(), next.status(), queued.dueAt()));
+    }
+
+    @Scheduled(fixedDelayString = "${rivalist.presence.broadcast-tick-ms:250}")
+    public void sendDue() {
+        if (pending.isEmpty()) return;
+        long now = clock.getAsLong();
+        for (PendingStatus status : pending.values()) {
+            // Skip entries replaced since we read them, they go out on a later tick
+            if (status.dueAt() <= now && pending.remove(status.userId(), status)) {
+                try {
+                    send(status);
+                } catch (RuntimeException e) {
+                    log.warn("Could not send status of {} to friends: {}", status.username(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void send(PendingStatus status) {
+        if (status.status() == lastSent.get(status.userId())) {
+            return;
+        }
+        List<String> recipients = usernamesOf(friendGraphCache.get(status.userId()).friends());
+        UserStatusDto dto = UserStatusDto.builder()
+                .userId(status.userId())
+                .username(status.username())
+                .status(status.status())
+                .build();
+        stompFanoutService.sendToUsers(recipients, DESTINATION, dto);
+
+        if (status.status() == User.UserStatus.OFFLINE) {
+            // Nothing more to send until they come back
+            lastSent.remove(status.userId());
+        } else {
+            lastSent.put(status.userId(), status.status());
+        }
+    }
+
+    private List<String> usernamesOf(long[] userIds) {
+        List<String> usernames = new ArrayList<>(userIds.length);
+        for (int from = 0; from < userIds.length; from += LOOKUP_BATCH_SIZE) {
+            List<Long> batch = Arrays.stream(userIds, from, Math.min(userIds.length, from + LOOKUP_BATCH_SIZE))
+                    .boxed()
+                    .toList();
+            usernames.addAll(userRepository.findUsernamesByIdIn(batch));
+        }
+        return usernames;
+    }
+
+    private record PendingStatus(Long userId, String username, User.UserStatus status, long dueAt) {
+    }
+}
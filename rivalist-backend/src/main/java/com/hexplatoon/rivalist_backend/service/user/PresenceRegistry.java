@@ -0,0 +1,149 @@
+package com.hexplatoon.rivalist_backend.service.user;
+
+import com.hexplatoon.rivalist_backend.entity.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which users are connected, counting their WebSocket sessions so a user with
+ * two tabs stays online until the last one closes. Only the first connect and the
+ * last disconnect change the user's status; those changes are coalesced per user and
+ * written to the database in batches by {@link #flush()}.
+ * <p>
+ * Session counts are per node. In relay mode a user can also have sessions on other
+ * nodes, so closing the last one here only marks them OFFLINE once the broker's shared
+ * {@link SimpUserRegistry} shows no session left anywhere. Until then they are rechecked
+ * on every flush, which can lag by the registry's broadcast interval.
+ */
+@Slf4j
+@Component
+public class PresenceRegistry {
+
+    private final Map<Long, Presence> presences = new ConcurrentHashMap<>();
+    // Latest status per user that is not written yet, a later change overwrites an earlier one
+    private final Map<Long, User.UserStatus> pendingWrites = new ConcurrentHashMap<>();
+    // Users with no session here who still had one on another node, by username
+    private final Map<Long, String> awaitingOtherNodes = new ConcurrentHashMap<>();
+    private final UserStatusService userStatusService;
+    private final SimpUserRegistry simpUserRegistry;
+    private final boolean multiNode;
+
+    public PresenceRegistry(UserStatusService userStatusService, SimpUserRegistry simpUserRegistry,
+                            MeterRegistry meterRegistry, @Value("${rivalist.broker.mode:simple}") String brokerMode) {
+        this.userStatusService = userStatusService;
+        this.simpUserRegistry = simpUserRegistry;
+        this.multiNode = "relay".equals(brokerMode);
+        Gauge.builder("rivalist.presence.online", presences, Map::size)
+                .description("Users with at least one open session on this node")
+                .register(meterRegistry);
+        Gauge.builder("rivalist.presence.pending-writes", pendingWrites, Map::size)
+                .description("Status changes waiting for the next flush")
+                .register(meterRegistry);
+    }
+
+    public void connect(Long userId, String sessionId) {
+        long now = System.currentTimeMillis();
+        // compute runs under the map's lock for this key, so each presence is only mutated here
+        presences.compute(userId, (id, presence) -> {
+            if (presence == null) {
+                presence = new Presence();
+                awaitingOtherNodes.remove(id);
+                pendingWrites.put(id, User.UserStatus.ONLINE);
+            }
+            presence.sessionIds.add(sessionId);
+            presence.lastSeenAt = now;
+            return presence;
+        });
+    }
+
+    /**
+     * Drops a session. Disconnect events can repeat for the same session, which is harmless.
+     *
+     * @return true if this closed the user's last session on this node
+     */
+    public boolean disconnect(Long userId, String username, String sessionId) {
+        long now = System.currentTimeMillis();
+        boolean[] lastSession = {false};
+        presences.computeIfPresent(userId, (id, presence) -> {
+            presence.sessionIds.remove(sessionId);
+            presence.lastSeenAt = now;
+            if (!presence.sessionIds.isEmpty()) {
+                return presence;
+            }
+            if (multiNode && hasSessionElsewhere(username, sessionId)) {
+                awaitingOtherNodes.put(id, username);
+            } else {
+                pendingWrites.put(id, User.UserStatus.OFFLINE);
+            }
+            lastSession[0] = true;
+            return null;
+        });
+        return lastSession[0];
+    }
+
+    public boolean isOnline(Long userId) {
+        return presences.containsKey(userId);
+    }
+
+    /**
+     * Time of the user's last connect or disconnect in epoch millis, or 0 if they are offline.
+     */
+    public long lastSeenAt(Long userId) {
+        Presence presence = presences.get(userId);
+        return presence == null ? 0 : presence.lastSeenAt;
+    }
+
+    @Scheduled(fixedDelayString = "${rivalist.presence.flush-interval-ms:1000}")
+    public void flush() {
+        awaitingOtherNodes.forEach((userId, username) -> {
+            if (!hasSessionElsewhere(username, null)) {
+                // Under the key's lock, so a connect racing with this wins
+                presences.compute(userId, (id, presence) -> {
+                    if (presence == null && awaitingOtherNodes.remove(id, username)) {
+                        pendingWrites.put(id, User.UserStatus.OFFLINE);
+                    }
+                    return presence;
+                });
+            }
+        });
+        if (pendingWrites.isEmpty()) return;
+        Map<Long, User.UserStatus> batch = new HashMap<>();
+        for (Long userId : pendingWrites.keySet()) {
+            User.UserStatus status = pendingWrites.remove(userId);
+            if (status != null) {
+                batch.put(userId, status);
+            }
+        }
+        try {
+            userStatusService.applyPresenceChanges(batch);
+        } catch (RuntimeException e) {
+            log.error("Could not write {} presence change(s), retrying on the next flush", batch.size(), e);
+            // Don't clobber anything newer that arrived meanwhile
+            batch.forEach(pendingWrites::putIfAbsent);
+        }
+    }
+
+    // Any session of the user in the shared registry other than the one closing
+    private boolean hasSessionElsewhere(String username, String closingSessionId) {
+        SimpUser user = simpUserRegistry.getUser(username);
+        return user != null && user.getSessions().stream()
+                .anyMatch(session -> !session.getId().equals(closingSessionId));
+    }
+
+    private static class Presence {
+        private final Set<String> sessionIds = new HashSet<>();
+        private volatile long lastSeenAt;
+    }
+}
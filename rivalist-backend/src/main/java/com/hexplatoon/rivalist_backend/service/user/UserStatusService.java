@@ -1,17 +1,15 @@
 package com.hexplatoon.rivalist_backend.service.user;
 
-import com.hexplatoon.rivalist_backend.dto.user.ProfileDto;
-import com.hexplatoon.rivalist_backend.dto.user.UserStatusDto;
 import com.hexplatoon.rivalist_backend.entity.User;
 import com.hexplatoon.rivalist_backend.repository.UserRepository;
-import com.hexplatoon.rivalist_backend.service.FriendService;
 import com.hexplatoon.rivalist_backend.service.NotificationService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for managing user online status and broadcasting status changes.
@@ -21,9 +19,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserStatusService {
     private final UserRepository userRepository;
-    private final FriendService friendService;
     private final NotificationService notificationService;
-    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final PresenceBroadcaster presenceBroadcaster;
 
     /**
      * Updates a user's status and notifies their friends.
@@ -47,6 +44,29 @@ public class UserStatusService {
         broadcastStatusUpdate(user);
     }
 
+    /**
+     * Writes status changes coalesced by {@link PresenceRegistry} in one batch. Users
+     * already in the target status are skipped, and a player who reconnects during a
+     * battle stays IN_BATTLE. Only users whose status actually changed are broadcast.
+     *
+     * @param changes the new status per user ID
+     */
+    public void applyPresenceChanges(Map<Long, User.UserStatus> changes) {
+        List<User> changed = new ArrayList<>();
+        for (User user : userRepository.findAllById(changes.keySet())) {
+            User.UserStatus newStatus = changes.get(user.getId());
+            if (newStatus == User.UserStatus.ONLINE && user.getStatus() == User.UserStatus.IN_BATTLE) {
+                continue;
+            }
+            if (user.getStatus() != newStatus) {
+                user.setStatus(newStatus);
+                changed.add(user);
+            }
+        }
+        userRepository.saveAll(changed);
+        changed.forEach(this::broadcastStatusUpdate);
+    }
+
     /**
      * Sets a user's status to ONLINE.
      *
@@ -88,28 +108,19 @@ public class UserStatusService {
     }
 
     /**
-     * Broadcasts a user's status update to all their friends.
+     * Queues a user's status update for their friends, see {@link PresenceBroadcaster}.
      *
      * @param user the user whose status changed
      */
     private void broadcastStatusUpdate(User user) {
-        List<ProfileDto> friends = friendService.listFriends(user.getUsername());
-        UserStatusDto statusUpdate = UserStatusDto.fromUser(user);
-        // TODO : change the subscription channel path
-        for (ProfileDto friend : friends) {
-            simpMessagingTemplate.convertAndSendToUser(
-                friend.getUsername(),
-                "/topic/user/status",
-                statusUpdate
-            );
+        presenceBroadcaster.statusChanged(user);
 
-            // send notification instead of online status update
-//            notificationService.createNotification(
-//                    friend.getUsername(),
-//                    user.getUsername(),
-//                    "user_status",
-//                    user.getUsername() + " is " + user.getStatus().name()
-//            );
-        }
+        // send notification instead of online status update
+//        notificationService.createNotification(
+//                friend.getUsername(),
+//                user.getUsername(),
+//                "user_status",
+//                user.getUsername() + " is " + user.getStatus().name()
+//        );
     }
 }
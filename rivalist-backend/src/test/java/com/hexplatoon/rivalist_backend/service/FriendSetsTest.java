@@ -0,0 +1,113 @@
+package com.hexplatoon.rivalist_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FriendSetsTest {
+
+    private final Random random = new Random(24);
+
+    @Test
+    void emptySets() {
+        long[] some = {1, 5, 9};
+
+        assertThat(FriendSets.intersect(new long[0], new long[0])).isEmpty();
+        assertThat(FriendSets.intersect(new long[0], some)).isEmpty();
+        assertThat(FriendSets.intersect(some, new long[0])).isEmpty();
+    }
+
+    @Test
+    void disjointSets() {
+        assertThat(FriendSets.intersect(new long[]{1, 3, 5}, new long[]{2, 4, 6})).isEmpty();
+        // Every element of the small set lies past the end of the large one
+        assertThat(FriendSets.intersect(new long[]{1_000, 1_001}, sequence(0, 500))).isEmpty();
+        assertThat(FriendSets.intersect(new long[]{-5, -1}, sequence(0, 500))).isEmpty();
+    }
+
+    @Test
+    void matchesAtTheEndsOfTheLargeSet() {
+        long[] large = sequence(0, 1_000);
+
+        assertThat(FriendSets.intersect(new long[]{0, 999}, large)).containsExactly(0, 999);
+        assertThat(FriendSets.intersect(large, new long[]{999})).containsExactly(999);
+    }
+
+    @Test
+    void randomSetsMatchTreeSet() {
+        for (int run = 0; run < 2_000; run++) {
+            // Sizes from a handful to thousands, so both the merge and the gallop path are hit
+            long[] a = randomSet(random.nextInt(8) == 0 ? 0 : 1 + random.nextInt(random.nextBoolean() ? 20 : 3_000));
+            long[] b = randomSet(random.nextInt(8) == 0 ? 0 : 1 + random.nextInt(random.nextBoolean() ? 20 : 3_000));
+            assertThat(FriendSets.intersect(a, b)).as("run %d", run).containsExactly(reference(a, b));
+        }
+    }
+
+    @Test
+    void veryUnevenSizesMatchTreeSet() {
+        for (int run = 0; run < 200; run++) {
+            long[] small = randomSet(1 + random.nextInt(10));
+            long[] large = randomSet(2_000 + random.nextInt(20_000));
+            assertThat(FriendSets.intersect(small, large)).containsExactly(reference(small, large));
+            assertThat(FriendSets.intersect(large, small)).containsExactly(reference(small, large));
+        }
+    }
+
+    @Test
+    void smallSetDrawnFromTheLargeOne() {
+        // Galloping has to land exactly on every element instead of stepping over it
+        long[] large = randomSet(50_000);
+        for (int run = 0; run < 100; run++) {
+            TreeSet<Long> picked = new TreeSet<>();
+            int picks = 1 + random.nextInt(100);
+            for (int i = 0; i < picks; i++) {
+                picked.add(large[random.nextInt(large.length)]);
+            }
+            long[] small = picked.stream().mapToLong(Long::longValue).toArray();
+            assertThat(FriendSets.intersect(small, large)).containsExactly(small);
+        }
+    }
+
+    @Test
+    void containsAndPage() {
+        long[] ids = sequence(10, 25);
+
+        assertThat(FriendSets.contains(ids, 10)).isTrue();
+        assertThat(FriendSets.contains(ids, 25)).isFalse();
+        assertThat(FriendSets.page(ids, 1, 10)).containsExactly(sequence(20, 25));
+        assertThat(FriendSets.page(ids, 2, 10)).isEmpty();
+        assertThat(FriendSets.page(ids, -1, 10)).isEmpty();
+        assertThat(FriendSets.page(ids, 0, 0)).isEmpty();
+    }
+
+    private long[] randomSet(int size) {
+        // Dense enough relative to the range that random sets overlap
+        long range = Math.max(1, 4L * size);
+        TreeSet<Long> set = new TreeSet<>();
+        while (set.size() < size) {
+            set.add(random.nextLong(range));
+        }
+        return set.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long[] reference(long[] a, long[] b) {
+        TreeSet<Long> set = new TreeSet<>();
+        for (long x : a) set.add(x);
+        TreeSet<Long> common = new TreeSet<>();
+        for (long x : b) {
+            if (set.contains(x)) common.add(x);
+        }
+        return common.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long[] sequence(long from, long to) {
+        long[] ids = new long[(int) (to - from)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = from + i;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,66 @@
+package com.hexplatoon.rivalist_backend.service.battle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the pool against a real headless Chrome, which needs Chrome and chromedriver on
+ * the machine. Opt in with {@code -Drivalist.renderer.chrome-test=true}.
+ */
+@EnabledIfSystemProperty(named = "rivalist.renderer.chrome-test", matches = "true")
+class HeadlessRendererPoolChromeTest {
+
+    private static final int POOL_SIZE = 2;
+    private static final int MAX_RENDERS = 50;
+    private static final int RENDERS = 1_000;
+    private static final long EXIT_WAIT_MS = 10_000;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G'};
+
+    private static final String FIXTURE = """
+            <html><body style="margin:0">
+              <div style="width:200px;height:200px;background:#dd6b4d;border-radius:50%"></div>
+            </body></html>
+            """;
+
+    @Test
+    void thousandRendersLeaveNoBrowserProcessesBehind() throws InterruptedException {
+        long baseline = chromeProcesses();
+        HeadlessRendererPool pool = new HeadlessRendererPool(new SimpleMeterRegistry(), POOL_SIZE, RENDERS,
+                MAX_RENDERS, 30_000, 2_000, false, HeadlessRendererPool::newChromeDriver);
+        try {
+            List<CompletableFuture<byte[]>> renders = IntStream.range(0, RENDERS)
+                    .mapToObj(i -> pool.submit(FIXTURE))
+                    .toList();
+            CompletableFuture.allOf(renders.toArray(CompletableFuture[]::new)).join();
+
+            assertThat(renders).allSatisfy(render ->
+                    assertThat(Arrays.copyOf(render.join(), PNG_SIGNATURE.length)).isEqualTo(PNG_SIGNATURE));
+        } finally {
+            pool.shutdown();
+        }
+
+        // quit() returns before every browser child process has exited
+        long deadline = System.currentTimeMillis() + EXIT_WAIT_MS;
+        while (chromeProcesses() > baseline && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(chromeProcesses()).isEqualTo(baseline);
+    }
+
+    // chrome, its helper processes and chromedriver
+    private static long chromeProcesses() {
+        return ProcessHandle.allProcesses()
+                .filter(ProcessHandle::isAlive)
+                .map(process -> process.info().command().orElse(""))
+                .filter(command -> command.contains("chrome"))
+                .count();
+    }
+}
@@ -0,0 +1,106 @@
+package com.hexplatoon.rivalist_backend.service.battle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class HeadlessRendererPoolTest {
+
+    private static final int POOL_SIZE = 3;
+    private static final int MAX_RENDERS = 50;
+    private static final int RENDERS = 1_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger maxOpen = new AtomicInteger();
+    private final Map<WebDriver, AtomicInteger> rendersPerDriver = new ConcurrentHashMap<>();
+    private volatile boolean failScreenshots = false;
+
+    private final HeadlessRendererPool pool = new HeadlessRendererPool(meterRegistry, POOL_SIZE, RENDERS,
+            MAX_RENDERS, 10_000, 100, false, this::fakeDriver);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void thousandRendersStayWithinPoolSizeAndRecycleDrivers() {
+        List<CompletableFuture<byte[]>> renders = IntStream.range(0, RENDERS)
+                .mapToObj(i -> pool.submit("<div>" + i + "</div>"))
+                .toList();
+        CompletableFuture.allOf(renders.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(maxOpen.get()).isLessThanOrEqualTo(POOL_SIZE);
+        assertThat(liveInstances()).isLessThanOrEqualTo(POOL_SIZE);
+        // Every driver is quit once it reaches the render limit, so the work needs at least this many
+        assertThat(created.get()).isGreaterThanOrEqualTo(RENDERS / MAX_RENDERS);
+        assertThat(rendersPerDriver.values()).allSatisfy(count -> assertThat(count.get()).isLessThanOrEqualTo(MAX_RENDERS));
+        assertThat(meterRegistry.get("rivalist.renderer.recycled").counter().count())
+                .isEqualTo(created.get() - open.get());
+
+        pool.shutdown();
+
+        assertThat(open.get()).isZero();
+        assertThat(liveInstances()).isZero();
+    }
+
+    @Test
+    void failedRenderQuitsItsDriver() {
+        failScreenshots = true;
+
+        assertThatThrownBy(() -> pool.submit("<div></div>").join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(WebDriverException.class);
+
+        assertThat(created.get()).isEqualTo(1);
+        assertThat(open.get()).isZero();
+        assertThat(liveInstances()).isZero();
+    }
+
+    private double liveInstances() {
+        return meterRegistry.get("rivalist.renderer.instances").gauge().value();
+    }
+
+    private WebDriver fakeDriver() {
+        WebDriver driver = mock(WebDriver.class, withSettings()
+                .extraInterfaces(JavascriptExecutor.class, TakesScreenshot.class)
+                .defaultAnswer(RETURNS_DEEP_STUBS));
+        AtomicInteger renders = new AtomicInteger();
+        rendersPerDriver.put(driver, renders);
+        when(((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES)).thenAnswer(invocation -> {
+            renders.incrementAndGet();
+            if (failScreenshots) {
+                throw new WebDriverException("renderer crashed");
+            }
+            return new byte[]{1};
+        });
+        doAnswer(invocation -> open.decrementAndGet()).when(driver).quit();
+
+        created.incrementAndGet();
+        maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+        return driver;
+    }
+}
@@ -0,0 +1,236 @@
+package com.hexplatoon.rivalist_backend.service.battle.typing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypingAlignmentTest {
+
+    private static final String PASSAGE = "the quick brown fox jumps over the lazy dog while the cat watches from the fence";
+
+    @Test
+    void exactPrefixHasNoErrors() {
+        assertMatchesReference(PASSAGE, "the quick brown");
+
+        TypingAlignment alignment = TypingAlignment.of(PASSAGE, "the quick brown");
+        assertThat(alignment.errors()).isZero();
+        assertThat(alignment.correctChars()).isEqualTo(15);
+        assertThat(alignment.originalPosition()).isEqualTo(15);
+    }
+
+    @Test
+    void emptyInputAndEmptyPassage() {
+        assertMatchesReference(PASSAGE, "");
+        assertMatchesReference("", "abc");
+        assertMatchesReference("", "");
+    }
+
+    @Test
+    void typos() {
+        assertMatchesReference(PASSAGE, "teh quick brwon fox jumsp");
+        assertMatchesReference(PASSAGE, "the quixk brown fox jumps ovet the lazy dog");
+    }
+
+    @Test
+    void midTextDeletions() {
+        // A skipped word costs its own chars and the rest still lines up
+        String typed = "the quick fox jumps over the lazy dog";
+        assertMatchesReference(PASSAGE, typed);
+
+        TypingAlignment alignment = TypingAlignment.of(PASSAGE, typed);
+        assertThat(alignment.errors()).isEqualTo("brown ".length());
+        assertThat(alignment.originalPosition()).isEqualTo("the quick brown fox jumps over the lazy dog".length());
+    }
+
+    @Test
+    void doubledWords() {
+        assertMatchesReference(PASSAGE, "the the quick brown brown fox");
+    }
+
+    @Test
+    void inputLongerThanThePassage() {
+        assertMatchesReference(PASSAGE, PASSAGE + " and then some more text that is not in the passage");
+        assertMatchesReference("short", "short and then a lot more");
+
+        TypingAlignment alignment = TypingAlignment.of("short", "short and then a lot more");
+        assertThat(alignment.originalPosition()).isEqualTo(5);
+        assertThat(alignment.correctChars()).isEqualTo(5);
+    }
+
+    @Test
+    void skipAtTheEdgeOfTheBandIsFollowed() {
+        int band = 8;
+        // No repeated chars, so nothing inside the skip can look like a cheaper local match
+        String passage = "abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        String typed = passage.substring(0, 10) + passage.substring(10 + band, 40);
+        assertMatchesReference(passage, typed, band);
+        assertThat(align(passage, typed, band).originalPosition()).isEqualTo(40);
+
+        String tooFar = passage.substring(0, 10) + passage.substring(10 + band + 2, 40);
+        assertThat(align(passage, tooFar, band).errors()).isGreaterThan(Reference.of(passage, tooFar).errors);
+    }
+
+    @Test
+    void driftBiggerThanTheBandOnlyOverestimates() {
+        int band = 4;
+        String typed = PASSAGE.substring(0, 10) + PASSAGE.substring(30);
+
+        TypingAlignment banded = align(PASSAGE, typed, band);
+        Reference reference = Reference.of(PASSAGE, typed);
+        assertThat(banded.errors()).isGreaterThan(reference.errors);
+        assertThat(banded.correctChars()).isLessThanOrEqualTo(reference.correctChars);
+        assertThat(banded.originalPosition()).isBetween(0, PASSAGE.length());
+
+        // A band wide enough for the skip gets it right
+        assertMatchesReference(PASSAGE, typed, 24);
+    }
+
+    @Test
+    void replaceMatchesTypingTheResultFromScratch() {
+        TypingAlignment alignment = TypingAlignment.of(PASSAGE, "the quikc brown fox jumps over");
+        // Fix the typo with a long tail, which goes through the scratch buffer
+        alignment.replace(7, 2, "ck");
+        assertSameAs(alignment, TypingAlignment.of(PASSAGE, "the quick brown fox jumps over"));
+
+        // Shorter then longer tails reuse and then grow the scratch buffer
+        alignment.replace(26, 4, "");
+        alignment.replace(0, 0, "so ");
+        assertSameAs(alignment, TypingAlignment.of(PASSAGE, "so the quick brown fox jumps "));
+
+        alignment.replace(0, alignment.typedLength(), "");
+        assertSameAs(alignment, TypingAlignment.of(PASSAGE, ""));
+    }
+
+    @Test
+    void backspaceRestoresThePreviousRow() {
+        TypingAlignment alignment = TypingAlignment.of(PASSAGE, "the quick brx");
+        alignment.backspace();
+        alignment.append('o');
+        assertSameAs(alignment, TypingAlignment.of(PASSAGE, "the quick bro"));
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        // Rows are sized for the passage plus a little slack up front
+        String typed = (PASSAGE + " ").repeat(4);
+        TypingAlignment alignment = TypingAlignment.of(PASSAGE, typed);
+
+        assertThat(alignment.typedText()).isEqualTo(typed);
+        assertMatchesReference(PASSAGE, typed);
+    }
+
+    @Test
+    void randomEditsMatchTheFullMatrix() {
+        Random random = new Random(7);
+        for (int run = 0; run < 500; run++) {
+            String passage = randomText(random, 20 + random.nextInt(200));
+            String typed = randomEdits(random, passage.substring(0, random.nextInt(passage.length() + 1)));
+            assertMatchesReference(passage, typed);
+        }
+    }
+
+    private static void assertMatchesReference(String original, String typed) {
+        assertMatchesReference(original, typed, TypingAlignment.DEFAULT_BAND);
+    }
+
+    private static void assertMatchesReference(String original, String typed, int band) {
+        TypingAlignment alignment = align(original, typed, band);
+        Reference reference = Reference.of(original, typed);
+        assertThat(alignment.errors()).as("errors for '%s' against '%s'", typed, original).isEqualTo(reference.errors);
+        assertThat(alignment.correctChars()).as("correct chars for '%s' against '%s'", typed, original)
+                .isEqualTo(reference.correctChars);
+    }
+
+    private static void assertSameAs(TypingAlignment actual, TypingAlignment expected) {
+        assertThat(actual.typedText()).isEqualTo(expected.typedText());
+        assertThat(actual.errors()).isEqualTo(expected.errors());
+        assertThat(actual.correctChars()).isEqualTo(expected.correctChars());
+        assertThat(actual.originalPosition()).isEqualTo(expected.originalPosition());
+    }
+
+    private static TypingAlignment align(String original, String typed, int band) {
+        TypingAlignment alignment = new TypingAlignment(original, band);
+        for (int i = 0; i < typed.length(); i++) {
+            alignment.append(typed.charAt(i));
+        }
+        return alignment;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Typos, skipped runs and doubled runs, spaced out so the drift never outgrows the default band.
+     */
+    private static String randomEdits(Random random, String text) {
+        StringBuilder typed = new StringBuilder(text.length() + 16);
+        int at = 0;
+        while (at < text.length()) {
+            int run = 1 + random.nextInt(Math.min(6, text.length() - at));
+            switch (random.nextInt(8)) {
+                case 0 -> typed.append((char) ('a' + random.nextInt(26))).append(text, at + 1, at + run);
+                case 1 -> { }
+                case 2 -> typed.append(text, at, at + run).append(text, at, at + run);
+                default -> typed.append(text, at, at + run);
+            }
+            at += run;
+            int gap = Math.min(TypingAlignment.DEFAULT_BAND, text.length() - at);
+            typed.append(text, at, at + gap);
+            at += gap;
+        }
+        return typed.toString();
+    }
+
+    /**
+     * Plain full-matrix edit distance of the typed text against every prefix of the passage,
+     * preferring more matching chars between equally cheap alignments.
+     */
+    private record Reference(int errors, int correctChars) {
+
+        static Reference of(String original, String typed) {
+            int n = typed.length();
+            int m = original.length();
+            int[][] cost = new int[n + 1][m + 1];
+            int[][] matches = new int[n + 1][m + 1];
+            for (int j = 0; j <= m; j++) {
+                cost[0][j] = j;
+            }
+            for (int i = 1; i <= n; i++) {
+                cost[i][0] = i;
+                for (int j = 1; j <= m; j++) {
+                    boolean same = typed.charAt(i - 1) == original.charAt(j - 1);
+                    int bestCost = cost[i - 1][j - 1] + (same ? 0 : 1);
+                    int bestMatches = matches[i - 1][j - 1] + (same ? 1 : 0);
+                    if (better(cost[i - 1][j] + 1, matches[i - 1][j], bestCost, bestMatches)) {
+                        bestCost = cost[i - 1][j] + 1;
+                        bestMatches = matches[i - 1][j];
+                    }
+                    if (better(cost[i][j - 1] + 1, matches[i][j - 1], bestCost, bestMatches)) {
+                        bestCost = cost[i][j - 1] + 1;
+                        bestMatches = matches[i][j - 1];
+                    }
+                    cost[i][j] = bestCost;
+                    matches[i][j] = bestMatches;
+                }
+            }
+            int best = 0;
+            for (int j = 1; j <= m; j++) {
+                if (better(cost[n][j], matches[n][j], cost[n][best], matches[n][best])) {
+                    best = j;
+                }
+            }
+            return new Reference(cost[n][best], matches[n][best]);
+        }
+
+        private static boolean better(int cost, int matches, int bestCost, int bestMatches) {
+            return cost < bestCost || (cost == bestCost && matches > bestMatches);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.hexplatoon.rivalist_backend.service.battle.typing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypingProgressTest {
+
+    private static final String PASSAGE = "the quick brown fox";
+    private static final int MAX_TYPED = 2 * PASSAGE.length();
+
+    private final TypingProgress progress = new TypingProgress(PASSAGE);
+    private long seq = 0;
+
+    @Test
+    void appendsUpToTheBoundAreAccepted() {
+        assertThat(append(PASSAGE)).isTrue();
+        assertThat(append(PASSAGE)).isTrue();
+
+        assertThat(progress.typedText()).hasSize(MAX_TYPED);
+    }
+
+    @Test
+    void appendPastTheBoundIsRejected() {
+        append("x".repeat(MAX_TYPED));
+
+        assertThat(append("x")).isFalse();
+        assertThat(progress.typedText()).hasSize(MAX_TYPED);
+    }
+
+    @Test
+    void replacePastTheBoundIsRejected() {
+        append("x".repeat(MAX_TYPED - 1));
+
+        // Net growth of two from a one-char replace would overshoot by one
+        assertThat(progress.apply(seq++, 0, 1, "yyy")).isFalse();
+        assertThat(progress.apply(seq++, 0, 1, "yy")).isTrue();
+        assertThat(progress.typedText()).hasSize(MAX_TYPED).startsWith("yy");
+    }
+
+    @Test
+    void deletingMakesRoomAgain() {
+        append("x".repeat(MAX_TYPED));
+        assertThat(append("x")).isFalse();
+
+        assertThat(progress.apply(seq++, MAX_TYPED - 3, 3, "")).isTrue();
+        assertThat(append("abc")).isTrue();
+        assertThat(append("d")).isFalse();
+        assertThat(progress.typedText()).hasSize(MAX_TYPED).endsWith("abc");
+    }
+
+    @Test
+    void rejectedDeltaDoesNotConsumeItsSequenceNumber() {
+        append("x".repeat(MAX_TYPED));
+        long rejected = seq;
+        assertThat(append("x")).isFalse();
+
+        assertThat(progress.apply(rejected, MAX_TYPED - 1, 1, "y")).isTrue();
+    }
+
+    private boolean append(String text) {
+        return progress.apply(seq++, progress.typedText().length(), 0, text);
+    }
+}
@@ -0,0 +1,112 @@
+package com.hexplatoon.rivalist_backend.service.battle.similarity;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API versions of {@link PixelKernels}. Only compiled by the {@code vector} profile
+ * and only loaded when the incubator module is present, so nothing else may reference
+ * this class directly.
+ */
+final class VectorPixelKernels extends PixelKernels {
+
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final int PARTS = BYTES.length() / INTS.length();
+
+    VectorPixelKernels() {
+    }
+
+    @Override
+    long absDiffSum(byte[] a, byte[] b) {
+        int upper = BYTES.loopBound(a.length);
+        IntVector acc = IntVector.zero(INTS);
+        int i = 0;
+        for (; i < upper; i += BYTES.length()) {
+            ByteVector va = ByteVector.fromArray(BYTES, a, i);
+            ByteVector vb = ByteVector.fromArray(BYTES, b, i);
+            // Widen each quarter of the byte lanes to ints and mask back to unsigned
+            for (int part = 0; part < PARTS; part++) {
+                IntVector ia = ((IntVector) va.convertShape(VectorOperators.B2I, INTS, part)).and(0xFF);
+                IntVector ib = ((IntVector) vb.convertShape(VectorOperators.B2I, INTS, part)).and(0xFF);
+                acc = acc.add(ia.sub(ib).abs());
+            }
+        }
+        long sum = acc.reduceLanesToLong(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            sum += Math.abs((a[i] & 0xFF) - (b[i] & 0xFF));
+        }
+        return sum;
+    }
+
+    @Override
+    int equalPixelCount(Raster a, Raster b) {
+        byte[] ar = a.getRed(), ag = a.getGreen(), ab = a.getBlue();
+        byte[] br = b.getRed(), bg = b.getGreen(), bb = b.getBlue();
+        int upper = BYTES.loopBound(ar.length);
+        int equal = 0;
+        int i = 0;
+        for (; i < upper; i += BYTES.length()) {
+            VectorMask<Byte> same = ByteVector.fromArray(BYTES, ar, i).eq(ByteVector.fromArray(BYTES, br, i))
+                    .and(ByteVector.fromArray(BYTES, ag, i).eq(ByteVector.fromArray(BYTES, bg, i)))
+                    .and(ByteVector.fromArray(BYTES, ab, i).eq(ByteVector.fromArray(BYTES, bb, i)));
+            equal += same.trueCount();
+        }
+        for (; i < ar.length; i++) {
+            if (ar[i] == br[i] && ag[i] == bg[i] && ab[i] == bb[i]) {
+                equal++;
+            }
+        }
+        return equal;
+    }
+
+    @Override
+    void stripColumnSums(byte[] x, byte[] y, int width, int top, int rows, int[] sums) {
+        int upper = BYTES.loopBound(width);
+        int c = 0;
+        // Columns outer, rows inner, so each accumulator is stored once per strip
+        for (; c < upper; c += BYTES.length()) {
+            for (int part = 0; part < PARTS; part++) {
+                IntVector sumX = IntVector.zero(INTS), sumY = sumX, sumXX = sumX, sumYY = sumX, sumXY = sumX;
+                for (int row = top; row < top + rows; row++) {
+                    int offset = row * width + c;
+                    IntVector a = ((IntVector) ByteVector.fromArray(BYTES, x, offset)
+                            .convertShape(VectorOperators.B2I, INTS, part)).and(0xFF);
+                    IntVector b = ((IntVector) ByteVector.fromArray(BYTES, y, offset)
+                            .convertShape(VectorOperators.B2I, INTS, part)).and(0xFF);
+                    sumX = sumX.add(a);
+                    sumY = sumY.add(b);
+                    sumXX = sumXX.add(a.mul(a));
+                    sumYY = sumYY.add(b.mul(b));
+                    sumXY = sumXY.add(a.mul(b));
+                }
+                int column = c + part * INTS.length();
+                sumX.intoArray(sums, column);
+                sumY.intoArray(sums, width + column);
+                sumXX.intoArray(sums, 2 * width + column);
+                sumYY.intoArray(sums, 3 * width + column);
+                sumXY.intoArray(sums, 4 * width + column);
+            }
+        }
+        for (; c < width; c++) {
+            int sumX = 0, sumY = 0, sumXX = 0, sumYY = 0, sumXY = 0;
+            for (int row = top; row < top + rows; row++) {
+                int a = x[row * width + c] & 0xFF;
+                int b = y[row * width + c] & 0xFF;
+                sumX += a;
+                sumY += b;
+                sumXX += a * a;
+                sumYY += b * b;
+                sumXY += a * b;
+            }
+            sums[c] = sumX;
+            sums[width + c] = sumY;
+            sums[2 * width + c] = sumXX;
+            sums[3 * width + c] = sumYY;
+            sums[4 * width + c] = sumXY;
+        }
+    }
+}